@@ -2,6 +2,7 @@ plugins {
     java
     id("org.springframework.boot") version "3.5.7"
     id("io.spring.dependency-management") version "1.1.7"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.ozgedemir"
@@ -10,7 +11,7 @@ description = "Wallet API"
 
 java {
     toolchain {
-        languageVersion = JavaLanguageVersion.of(17)
+        languageVersion = JavaLanguageVersion.of(21)
     }
 }
 
@@ -18,15 +19,30 @@ repositories {
     mavenCentral()
 }
 
+// src/loadTest/java: HTTP load test against an in-process instance, see the loadTest task below
+sourceSets {
+    create("loadTest") {
+        compileClasspath += sourceSets.main.get().output
+        runtimeClasspath += sourceSets.main.get().output
+    }
+}
+configurations["loadTestImplementation"].extendsFrom(configurations.implementation.get())
+configurations["loadTestRuntimeOnly"].extendsFrom(configurations.runtimeOnly.get())
+
 dependencies {
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-validation")
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
     implementation("org.springframework.boot:spring-boot-starter-security")
     implementation("org.springframework.boot:spring-boot-starter-aop")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
     implementation("org.springdoc:springdoc-openapi-starter-webmvc-ui:2.8.13")
     implementation("org.flywaydb:flyway-core")
+    implementation("com.github.ben-manes.caffeine:caffeine")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-cbor")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-smile")
     runtimeOnly("com.h2database:h2")
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
 
     // Lombok
     compileOnly("org.projectlombok:lombok:1.18.34")
@@ -45,9 +61,50 @@ dependencies {
     testImplementation("org.mockito:mockito-junit-jupiter")
     testImplementation("org.assertj:assertj-core")
 
+    // JMH (src/jmh/java)
+    jmhImplementation("org.springframework:spring-test")
 
+    // Load test (src/loadTest/java)
+    "loadTestImplementation"("org.hdrhistogram:HdrHistogram:2.2.2")
 }
 
+// ./gradlew jmh                         -> all benchmarks
+// ./gradlew jmh -Pjmh.includes=Jwt      -> benchmarks whose name matches the regex
+// Results go to build/results/jmh/results.json; the gc profiler adds allocation rates (gc.alloc.rate.norm).
+jmh {
+    jmhVersion = "1.37"
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+    (findProperty("jmh.includes") as String?)?.let { includes = listOf(it) }
+}
+
+
+// ./gradlew loadTest                                   -> 64 clients for 30s over 100 wallets, then checks balances
+// ./gradlew loadTest -PloadTest.clients=200 -PloadTest.duration=60s -PloadTest.wallets=10000 \
+//     -PloadTest.skew=1.2 -PloadTest.mix=deposit:60,withdraw:30,approve:5,list:5 \
+//     -PloadTest.app=wallet.balance.mode=ledger,wallet.deposits.group-commit.enabled=true
+// skew 0 spreads load uniformly over the wallets; higher values (Zipf exponent) concentrate it on a few hot ones.
+// Exits non-zero if a wallet's balances don't match its transaction history.
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Drives HTTP traffic against an in-memory instance and checks balance invariants"
+    classpath = sourceSets["loadTest"].runtimeClasspath
+    mainClass = "com.ozgedemir.wallet.load.LoadTest"
+    listOf("clients", "duration", "warmup", "wallets", "skew", "mix", "app").forEach { name ->
+        (findProperty("loadTest.$name") as String?)?.let { systemProperty("loadtest.$name", it) }
+    }
+}
+
+// ./gradlew bootRun -PvirtualThreads  -> serve requests on virtual threads and report pinned carriers
+tasks.named<org.springframework.boot.gradle.tasks.run.BootRun>("bootRun") {
+    if (project.hasProperty("virtualThreads")) {
+        systemProperty("spring.threads.virtual.enabled", "true")
+        jvmArgs("-Djdk.tracePinnedThreads=short")
+    }
+}
 
 tasks.withType<Test> {
     useJUnitPlatform()
@@ -0,0 +1,27 @@
+package com.ozgedemir.wallet;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/** Boots the application for a benchmark trial: random port, quiet logs, its own in-memory H2 database. */
+public final class BenchmarkApp {
+
+    private BenchmarkApp() {}
+
+    public static ConfigurableApplicationContext start(String... extraProperties) {
+        List<String> props = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN",
+                "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID()
+                        + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"));
+        props.addAll(List.of(extraProperties));
+        return new SpringApplicationBuilder(WalletApiApplication.class)
+                .properties(props.toArray(String[]::new))
+                .run();
+    }
+}
@@ -0,0 +1,102 @@
+package com.ozgedemir.wallet;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Platform vs virtual request threads at high concurrency.
+ * Each request holds a DB connection for dbLatencyMs inside a transaction, standing in for
+ * a blocking JDBC round trip to a remote database. Tomcat is capped at 100 platform threads
+ * and the connection pool is sized above the client count, so in platform mode the thread
+ * pool is the bottleneck and in virtual mode it isn't.
+ * It has not been run as part of the build; the numbers depend on the machine and database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(400)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class ThreadModelBenchmark {
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    @Param({"20"})
+    public int dbLatencyMs;
+
+    private ConfigurableApplicationContext ctx;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ctx = BenchmarkApp.start(
+                "spring.profiles.active=bench-probe",
+                "spring.threads.virtual.enabled=" + virtualThreads,
+                "server.tomcat.threads.max=100",
+                "server.tomcat.accept-count=1000",
+                "spring.datasource.hikari.maximum-pool-size=450");
+        int port = ((ServletWebServerApplicationContext) ctx).getWebServer().getPort();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        HttpResponse<String> login = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"employee@wallet\",\"password\":\"password\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        String token = new ObjectMapper().readTree(login.body()).get("token").asText();
+
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/bench/blocking?ms=" + dbLatencyMs))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public int blockingRequest() throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    /** Only registered for this benchmark (profile bench-probe). */
+    @RestController
+    @Profile("bench-probe")
+    static class BlockingProbe {
+        private final TransactionTemplate tx;
+        private final JdbcTemplate jdbc;
+
+        BlockingProbe(TransactionTemplate tx, JdbcTemplate jdbc) { this.tx = tx; this.jdbc = jdbc; }
+
+        @GetMapping("/bench/blocking")
+        public Integer blocking(@RequestParam int ms) {
+            return tx.execute(s -> {
+                jdbc.queryForObject("select count(*) from wallets", Integer.class);
+                try {
+                    Thread.sleep(ms);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return ms;
+            });
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.ozgedemir.wallet.balance;
+
+import com.ozgedemir.wallet.BenchmarkApp;
+import com.ozgedemir.wallet.domain.entities.Customer;
+import com.ozgedemir.wallet.domain.entities.Wallet;
+import com.ozgedemir.wallet.domain.enums.Currency;
+import com.ozgedemir.wallet.domain.enums.OppositePartyType;
+import com.ozgedemir.wallet.domain.repos.CustomerRepository;
+import com.ozgedemir.wallet.domain.repos.WalletRepository;
+import com.ozgedemir.wallet.dto.tx.TransactionResponse;
+import com.ozgedemir.wallet.dto.tx.WithdrawRequest;
+import com.ozgedemir.wallet.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Small withdrawals from many threads under each {@code wallet.balance.update-strategy}.
+ * wallets=1 puts every thread on the same row; wallets=16 spreads them out.
+ * locks=false drops the in-process wallet lock, which otherwise serializes optimistic and
+ * pessimistic writers before they reach the database (atomic skips it either way).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(16)
+public class BalanceStrategyBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+    private static final BigDecimal FUNDS = new BigDecimal("1000000000.00");
+
+    @Param({"optimistic", "pessimistic", "atomic"})
+    public String strategy;
+
+    @Param({"1", "16"})
+    public int wallets;
+
+    @Param({"true", "false"})
+    public boolean locks;
+
+    private ConfigurableApplicationContext ctx;
+    private TransactionService txService;
+    private long[] walletIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ctx = BenchmarkApp.start("wallet.balance.update-strategy=" + strategy,
+                "wallet.concurrency.in-process-locks=" + locks);
+        txService = ctx.getBean(TransactionService.class);
+
+        Customer owner = ctx.getBean(CustomerRepository.class).findByUsername("alice@wallet").orElseThrow();
+        WalletRepository repo = ctx.getBean(WalletRepository.class);
+        walletIds = new long[wallets];
+        for (int i = 0; i < wallets; i++) {
+            Wallet w = new Wallet();
+            w.setCustomer(owner);
+            w.setWalletName("spend-" + i);
+            w.setCurrency(Currency.TRY);
+            w.setActiveForShopping(true);
+            w.setBalance(FUNDS);
+            w.setUsableBalance(FUNDS);
+            walletIds[i] = repo.save(w).getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public TransactionResponse withdraw() {
+        long walletId = walletIds[ThreadLocalRandom.current().nextInt(walletIds.length)];
+        return txService.withdraw(new WithdrawRequest(walletId, AMOUNT, OppositePartyType.PAYMENT, "SHOP1"));
+    }
+}
@@ -0,0 +1,62 @@
+package com.ozgedemir.wallet.balance;
+
+import com.ozgedemir.wallet.BenchmarkApp;
+import com.ozgedemir.wallet.domain.entities.Customer;
+import com.ozgedemir.wallet.domain.entities.Wallet;
+import com.ozgedemir.wallet.domain.enums.Currency;
+import com.ozgedemir.wallet.domain.enums.OppositePartyType;
+import com.ozgedemir.wallet.domain.repos.CustomerRepository;
+import com.ozgedemir.wallet.domain.repos.WalletRepository;
+import com.ozgedemir.wallet.dto.tx.DepositRequest;
+import com.ozgedemir.wallet.dto.tx.TransactionResponse;
+import com.ozgedemir.wallet.service.TransactionService;
+import com.ozgedemir.wallet.service.WalletShardingService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deposits from many threads into one wallet. slots=1 is the plain wallet row (one writer
+ * at a time); larger values spread the same traffic over that many balance slots.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(16)
+public class ShardedDepositBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("10.00");
+
+    @Param({"1", "4", "16"})
+    public int slots;
+
+    private ConfigurableApplicationContext ctx;
+    private TransactionService txService;
+    private long walletId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ctx = BenchmarkApp.start();
+        txService = ctx.getBean(TransactionService.class);
+
+        Customer owner = ctx.getBean(CustomerRepository.class).findByUsername("alice@wallet").orElseThrow();
+        Wallet w = new Wallet();
+        w.setCustomer(owner);
+        w.setWalletName("merchant");
+        w.setCurrency(Currency.TRY);
+        walletId = ctx.getBean(WalletRepository.class).save(w).getId();
+        ctx.getBean(WalletShardingService.class).reshard(walletId, slots);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public TransactionResponse deposit() {
+        return txService.deposit(new DepositRequest(walletId, AMOUNT, OppositePartyType.IBAN, "TR0001"));
+    }
+}
@@ -0,0 +1,60 @@
+package com.ozgedemir.wallet.errorhandler;
+
+import com.ozgedemir.wallet.dto.tx.DepositRequest;
+import jakarta.persistence.EntityNotFoundException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.util.concurrent.TimeUnit;
+
+/** Error body building for the common 400/404/409 paths. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ExceptionHandlerBenchmark {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private MockHttpServletRequest request;
+    private MethodArgumentNotValidException validation;
+    private IllegalStateException business;
+    private EntityNotFoundException notFound;
+
+    @Setup
+    public void setUp() throws Exception {
+        request = new MockHttpServletRequest("POST", "/api/v1/transactions/withdrawals");
+
+        BeanPropertyBindingResult errors = new BeanPropertyBindingResult(
+                new DepositRequest(null, null, null, null), "depositRequest");
+        errors.addError(new FieldError("depositRequest", "walletId", "must not be null"));
+        errors.addError(new FieldError("depositRequest", "oppositePartyType", "must not be null"));
+        MethodParameter param = new MethodParameter(
+                ExceptionHandlerBenchmark.class.getDeclaredMethod("target", DepositRequest.class), 0);
+        validation = new MethodArgumentNotValidException(param, errors);
+
+        business = new IllegalStateException("Insufficient usable balance");
+        notFound = new EntityNotFoundException("Wallet not found");
+    }
+
+    @SuppressWarnings("unused")
+    private void target(DepositRequest req) {}
+
+    @Benchmark
+    public ResponseEntity<Object> validationError() {
+        return handler.handleValidation(validation, request);
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> businessConflict() {
+        return handler.handleBusiness(business, request);
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> notFound() {
+        return handler.handleNotFound(notFound, request);
+    }
+}
@@ -0,0 +1,66 @@
+package com.ozgedemir.wallet.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue/verify cost, and the per-request cost of JwtAuthFilter with and without
+ * the verified-token cache (the uncached filter uses a zero TTL, so every request re-verifies).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtBenchmark {
+
+    private static final String SECRET = "bV3q2y7kK2Zx1mZr8HJyPqZfU5t9Wc3sQ6d8r0a2f4g6h8j0l2n4p6r8t0v2x4z6";
+
+    private JwtUtil jwt;
+    private String token;
+    private JwtAuthFilter cachedFilter;
+    private JwtAuthFilter uncachedFilter;
+
+    @Setup
+    public void setUp() {
+        jwt = new JwtUtil(SECRET, "wallet-api", 120);
+        token = jwt.generateToken("alice@wallet", "CUSTOMER");
+        cachedFilter = new JwtAuthFilter(new VerifiedTokenCache(jwt, 10_000, Duration.ofMinutes(5)));
+        uncachedFilter = new JwtAuthFilter(new VerifiedTokenCache(jwt, 10_000, Duration.ZERO));
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwt.generateToken("alice@wallet", "CUSTOMER");
+    }
+
+    @Benchmark
+    public Jws<Claims> parse() {
+        return jwt.parse(token);
+    }
+
+    @Benchmark
+    public Object filterCached() throws Exception {
+        return runFilter(cachedFilter);
+    }
+
+    @Benchmark
+    public Object filterUncached() throws Exception {
+        return runFilter(uncachedFilter);
+    }
+
+    private Object runFilter(JwtAuthFilter filter) throws Exception {
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", "/api/v1/wallets");
+        req.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(req, new MockHttpServletResponse(), new MockFilterChain());
+        Object auth = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return auth;
+    }
+}
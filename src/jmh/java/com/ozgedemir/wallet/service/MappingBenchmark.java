@@ -0,0 +1,65 @@
+package com.ozgedemir.wallet.service;
+
+import com.ozgedemir.wallet.domain.entities.Customer;
+import com.ozgedemir.wallet.domain.entities.Transaction;
+import com.ozgedemir.wallet.domain.entities.Wallet;
+import com.ozgedemir.wallet.domain.enums.Currency;
+import com.ozgedemir.wallet.domain.enums.OppositePartyType;
+import com.ozgedemir.wallet.domain.enums.TransactionStatus;
+import com.ozgedemir.wallet.domain.enums.TransactionType;
+import com.ozgedemir.wallet.dto.tx.TransactionResponse;
+import com.ozgedemir.wallet.dto.wallet.WalletResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/** Entity -> DTO mappers used on every response. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MappingBenchmark {
+
+    private TransactionService txService;
+    private WalletService walletService;
+    private Transaction tx;
+    private Wallet wallet;
+
+    @Setup
+    public void setUp() {
+        // mappers don't touch the repositories
+        txService = new TransactionService(null, null, null, null, null, new SimpleMeterRegistry());
+        walletService = new WalletService(null, null, null);
+
+        Customer c = new Customer();
+        c.setId(1L);
+
+        wallet = new Wallet();
+        wallet.setId(1L);
+        wallet.setCustomer(c);
+        wallet.setWalletName("Main");
+        wallet.setCurrency(Currency.TRY);
+        wallet.setBalance(new BigDecimal("1250.00"));
+        wallet.setUsableBalance(new BigDecimal("250.00"));
+
+        tx = new Transaction();
+        tx.setId(42L);
+        tx.setWallet(wallet);
+        tx.setAmount(new BigDecimal("1000.00"));
+        tx.setType(TransactionType.DEPOSIT);
+        tx.setOppositePartyType(OppositePartyType.IBAN);
+        tx.setOppositeParty("TR0001");
+        tx.setStatus(TransactionStatus.PENDING);
+    }
+
+    @Benchmark
+    public TransactionResponse mapTransaction() {
+        return txService.map(tx);
+    }
+
+    @Benchmark
+    public WalletResponse mapWallet() {
+        return walletService.map(wallet);
+    }
+}
@@ -0,0 +1,90 @@
+package com.ozgedemir.wallet.service;
+
+import com.ozgedemir.wallet.BenchmarkApp;
+import com.ozgedemir.wallet.domain.entities.Customer;
+import com.ozgedemir.wallet.domain.entities.Wallet;
+import com.ozgedemir.wallet.domain.enums.Currency;
+import com.ozgedemir.wallet.domain.enums.OppositePartyType;
+import com.ozgedemir.wallet.domain.enums.TransactionStatus;
+import com.ozgedemir.wallet.domain.repos.CustomerRepository;
+import com.ozgedemir.wallet.domain.repos.WalletRepository;
+import com.ozgedemir.wallet.dto.tx.*;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * deposit/withdraw/approve through the Spring proxies (locks, retry, transactions) against in-memory H2.
+ * Contention is set by how many wallets the benchmark threads share: walletCount=1 puts every thread on
+ * the same wallet row, larger values spread them out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class TransactionServiceBenchmark {
+
+    private static final BigDecimal SMALL = new BigDecimal("10.00");
+    private static final BigDecimal LARGE = new BigDecimal("1500.00");
+
+    @Param({"1", "8", "64"})
+    public int walletCount;
+
+    private ConfigurableApplicationContext ctx;
+    private TransactionService txService;
+    private long[] walletIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ctx = BenchmarkApp.start();
+        txService = ctx.getBean(TransactionService.class);
+
+        CustomerRepository customers = ctx.getBean(CustomerRepository.class);
+        WalletRepository wallets = ctx.getBean(WalletRepository.class);
+        Customer owner = customers.findByUsername("alice@wallet").orElseThrow();
+
+        walletIds = new long[walletCount];
+        for (int i = 0; i < walletCount; i++) {
+            Wallet w = new Wallet();
+            w.setCustomer(owner);
+            w.setWalletName("bench-" + i);
+            w.setCurrency(Currency.TRY);
+            w.setActiveForShopping(true);
+            w.setActiveForWithdraw(true);
+            // large enough that withdrawals never run dry during a trial
+            w.setBalance(new BigDecimal("1000000000000"));
+            w.setUsableBalance(new BigDecimal("1000000000000"));
+            walletIds[i] = wallets.save(w).getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ctx.close();
+    }
+
+    private long randomWallet() {
+        return walletIds[ThreadLocalRandom.current().nextInt(walletIds.length)];
+    }
+
+    @Benchmark
+    public TransactionResponse deposit() {
+        return txService.deposit(new DepositRequest(randomWallet(), SMALL, OppositePartyType.IBAN, "TR0001"));
+    }
+
+    @Benchmark
+    public TransactionResponse withdraw() {
+        return txService.withdraw(new WithdrawRequest(randomWallet(), SMALL, OppositePartyType.PAYMENT, "PAY1"));
+    }
+
+    // a pending (over-threshold) deposit followed by its approval: two wallet writes per op
+    @Benchmark
+    public TransactionResponse depositThenApprove() {
+        TransactionResponse pending = txService.deposit(
+                new DepositRequest(randomWallet(), LARGE, OppositePartyType.IBAN, "TR0001"));
+        return txService.approve(pending.id(), new ApproveRequest(TransactionStatus.APPROVED));
+    }
+}
@@ -0,0 +1,76 @@
+package com.ozgedemir.wallet.web;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.ozgedemir.wallet.domain.enums.OppositePartyType;
+import com.ozgedemir.wallet.domain.enums.TransactionStatus;
+import com.ozgedemir.wallet.domain.enums.TransactionType;
+import com.ozgedemir.wallet.dto.CursorPage;
+import com.ozgedemir.wallet.dto.tx.TransactionResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode cost of a page of transactions per wire format, with the cached reader/writer
+ * the converters use. Payload sizes are printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WireFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"50"})
+    public int pageSize;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private CursorPage<TransactionResponse> page;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper mapper = switch (format) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        TypeReference<CursorPage<TransactionResponse>> type = new TypeReference<>() {};
+        writer = mapper.writerFor(type);
+        reader = mapper.readerFor(type);
+
+        List<TransactionResponse> items = new ArrayList<>(pageSize);
+        Instant t = Instant.parse("2025-01-01T00:00:00Z");
+        for (int i = 0; i < pageSize; i++) {
+            items.add(new TransactionResponse(1_000_000L + i, 42L, BigDecimal.valueOf(100_000 + i * 137L, 2),
+                    i % 3 == 0 ? TransactionType.WITHDRAW : TransactionType.DEPOSIT,
+                    i % 2 == 0 ? OppositePartyType.IBAN : OppositePartyType.PAYMENT,
+                    "TR33000610051978645784132" + i % 10,
+                    i % 5 == 0 ? TransactionStatus.PENDING : TransactionStatus.APPROVED,
+                    t.plusMillis(i * 1_537L)));
+        }
+        page = new CursorPage<>(items, "MTczNTY4OTYwMDAwMDoxMDAwMDQ5");
+        encoded = writer.writeValueAsBytes(page);
+        System.out.printf("%n%s payload for %d transactions: %d bytes%n", format, pageSize, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return writer.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public CursorPage<TransactionResponse> decode() throws Exception {
+        return reader.readValue(encoded);
+    }
+}
@@ -0,0 +1,46 @@
+package com.ozgedemir.wallet.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Latency histogram and response classes of one endpoint, recorded from many client threads. */
+final class EndpointStats {
+
+    private final Histogram latency = new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), 3);
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+
+    void record(long nanos, int status) {
+        latency.recordValue(Math.min(nanos, latency.getHighestTrackableValue()));
+        if (status < 300) ok.increment();
+        else if (status == 409) conflicts.increment();
+        else if (status < 500) clientErrors.increment();
+        else serverErrors.increment();
+    }
+
+    long count() { return latency.getTotalCount(); }
+
+    long serverErrors() { return serverErrors.sum(); }
+
+    String row(String name, double seconds) {
+        return String.format("%-10s %9d %9d %9d %9d %9d %10.1f %8.2f %8.2f %8.2f %8.2f",
+                name, count(), ok.sum(), conflicts.sum(), clientErrors.sum(), serverErrors.sum(),
+                count() / seconds,
+                ms(latency.getValueAtPercentile(50)), ms(latency.getValueAtPercentile(95)),
+                ms(latency.getValueAtPercentile(99)), ms(latency.getMaxValue()));
+    }
+
+    static String header() {
+        return String.format("%-10s %9s %9s %9s %9s %9s %10s %8s %8s %8s %8s",
+                "endpoint", "requests", "2xx", "409", "4xx", "5xx", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,52 @@
+package com.ozgedemir.wallet.load;
+
+import java.time.Duration;
+import java.util.*;
+
+/** Load test settings, read from -Dloadtest.* (the loadTest Gradle task maps -PloadTest.* onto them). */
+record LoadConfig(
+        int clients,
+        Duration duration,
+        Duration warmup,
+        int wallets,
+        double skew,
+        Map<Operation, Integer> mix,
+        List<String> appProperties
+) {
+
+    static LoadConfig fromSystemProperties() {
+        return new LoadConfig(
+                Integer.getInteger("loadtest.clients", 64),
+                duration(System.getProperty("loadtest.duration", "30s")),
+                duration(System.getProperty("loadtest.warmup", "5s")),
+                Integer.getInteger("loadtest.wallets", 100),
+                Double.parseDouble(System.getProperty("loadtest.skew", "0")),
+                mix(System.getProperty("loadtest.mix", "deposit:50,withdraw:30,approve:10,list:10")),
+                list(System.getProperty("loadtest.app", "")));
+    }
+
+    // "30s", "2m" or ISO-8601
+    private static Duration duration(String v) {
+        if (v.endsWith("ms")) return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        if (v.endsWith("s")) return Duration.ofSeconds(Long.parseLong(v.substring(0, v.length() - 1)));
+        if (v.endsWith("m")) return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+        return Duration.parse(v);
+    }
+
+    private static Map<Operation, Integer> mix(String v) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : v.split(",")) {
+            String[] kv = part.trim().split(":");
+            if (kv.length != 2) throw new IllegalArgumentException("mix entries look like deposit:50, got " + part);
+            weights.put(Operation.valueOf(kv[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(kv[1].trim()));
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("mix needs at least one positive weight");
+        }
+        return weights;
+    }
+
+    private static List<String> list(String v) {
+        return Arrays.stream(v.split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+    }
+}
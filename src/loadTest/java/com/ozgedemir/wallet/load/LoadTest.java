@@ -0,0 +1,252 @@
+package com.ozgedemir.wallet.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ozgedemir.wallet.WalletApiApplication;
+import com.ozgedemir.wallet.domain.repos.CustomerRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HTTP load test: boots the app on a random port against its own in-memory H2 database,
+ * creates and funds wallets, then lets {@code clients} threads send a weighted mix of
+ * deposit / withdraw / approve / list requests for {@code duration}. Requests during
+ * {@code warmup} are not measured. Afterwards it prints throughput and latency percentiles
+ * per endpoint and checks every wallet's balances against its transaction history.
+ */
+public final class LoadTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    // funds each wallet once, large enough that withdrawals rarely run dry
+    private static final BigDecimal SEED = new BigDecimal("1000000.00");
+
+    private final LoadConfig config;
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    private final Queue<Long> pending = new ConcurrentLinkedQueue<>();
+    private final LongAdder created = new LongAdder();
+    private String baseUrl;
+    private String token;
+
+    private LoadTest(LoadConfig config) {
+        this.config = config;
+        for (Operation op : Operation.values()) stats.put(op, new EndpointStats());
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.fromSystemProperties();
+        boolean consistent;
+        try (ConfigurableApplicationContext ctx = start(config.appProperties())) {
+            consistent = new LoadTest(config).run(ctx);
+        }
+        System.exit(consistent ? 0 : 1);
+    }
+
+    private static ConfigurableApplicationContext start(List<String> extraProperties) {
+        List<String> props = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN",
+                "spring.datasource.url=jdbc:h2:mem:load-" + UUID.randomUUID()
+                        + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"));
+        props.addAll(extraProperties);
+        return new SpringApplicationBuilder(WalletApiApplication.class)
+                .properties(props.toArray(String[]::new))
+                .run();
+    }
+
+    private boolean run(ConfigurableApplicationContext ctx) throws Exception {
+        baseUrl = "http://localhost:" + ((ServletWebServerApplicationContext) ctx).getWebServer().getPort();
+        token = login();
+        long customerId = ctx.getBean(CustomerRepository.class).findByUsername("alice@wallet").orElseThrow().getId();
+
+        List<Long> walletIds = createWallets(customerId);
+        System.out.printf("%d wallets funded, %d clients, mix %s, skew %.2f, %s warmup + %s measured%n",
+                walletIds.size(), config.clients(), config.mix(), config.skew(), config.warmup(), config.duration());
+
+        WalletPicker picker = new WalletPicker(walletIds, config.skew());
+        long measureFrom = System.nanoTime() + config.warmup().toNanos();
+        long endAt = measureFrom + config.duration().toNanos();
+
+        List<Future<?>> clients = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(config.clients())) {
+            for (int i = 0; i < config.clients(); i++) {
+                clients.add(pool.submit(() -> {
+                    drive(picker, measureFrom, endAt);
+                    return null;
+                }));
+            }
+            for (Future<?> client : clients) client.get();
+        }
+
+        report(config.duration().toNanos() / 1e9);
+        return checkBalances(ctx.getBean(JdbcTemplate.class), walletIds);
+    }
+
+    private void drive(WalletPicker picker, long measureFrom, long endAt) throws Exception {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        Operation[] ops = config.mix().keySet().toArray(Operation[]::new);
+        int[] cumulative = new int[ops.length];
+        int total = 0;
+        for (int i = 0; i < ops.length; i++) cumulative[i] = total += config.mix().get(ops[i]);
+
+        while (true) {
+            long start = System.nanoTime();
+            if (start >= endAt) return;
+            int r = rnd.nextInt(total), i = 0;
+            while (cumulative[i] <= r) i++;
+            Operation op = ops[i];
+            long walletId = picker.next(rnd);
+
+            HttpResponse<String> res = switch (op) {
+                case DEPOSIT -> post("/api/v1/transactions/deposits", Map.of(
+                        "walletId", walletId, "amount", amount(rnd),
+                        "oppositePartyType", rnd.nextBoolean() ? "IBAN" : "PAYMENT", "source", "LOAD"));
+                case WITHDRAW -> post("/api/v1/transactions/withdrawals", Map.of(
+                        "walletId", walletId, "amount", amount(rnd),
+                        "oppositePartyType", rnd.nextBoolean() ? "IBAN" : "PAYMENT", "destination", "LOAD"));
+                case APPROVE -> {
+                    Long txId = pending.poll();
+                    if (txId == null) yield null; // nothing to approve yet
+                    yield post("/api/v1/transactions/" + txId + "/approve",
+                            Map.of("status", rnd.nextInt(10) < 8 ? "APPROVED" : "DENIED"));
+                }
+                case LIST -> get("/api/v1/transactions?walletId=" + walletId + "&size=20");
+            };
+            if (res == null) continue;
+
+            long took = System.nanoTime() - start;
+            if (start >= measureFrom) stats.get(op).record(took, res.statusCode());
+            if (res.statusCode() == 201) {
+                created.increment();
+                JsonNode body = JSON.readTree(res.body());
+                if ("PENDING".equals(body.get("status").asText())) pending.add(body.get("id").asLong());
+            }
+        }
+    }
+
+    // 1.00 - 1500.00: about a third of the writes go over the 1000 threshold and become PENDING
+    private static BigDecimal amount(ThreadLocalRandom rnd) {
+        return BigDecimal.valueOf(rnd.nextLong(100, 150_001)).movePointLeft(2);
+    }
+
+    private String login() throws IOException, InterruptedException {
+        HttpResponse<String> res = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"employee@wallet\",\"password\":\"password\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        return JSON.readTree(res.body()).get("token").asText();
+    }
+
+    private List<Long> createWallets(long customerId) throws IOException, InterruptedException {
+        List<Long> ids = new ArrayList<>(config.wallets());
+        for (int i = 0; i < config.wallets(); i++) {
+            long walletId = JSON.readTree(expect(201, post("/api/v1/wallets", Map.of(
+                    "customerId", customerId, "walletName", "load-" + i, "currency", "TRY",
+                    "activeForShopping", true, "activeForWithdraw", true)))).get("id").asLong();
+            long depositId = JSON.readTree(expect(201, post("/api/v1/transactions/deposits", Map.of(
+                    "walletId", walletId, "amount", SEED, "oppositePartyType", "IBAN", "source", "SEED"))))
+                    .get("id").asLong();
+            expect(200, post("/api/v1/transactions/" + depositId + "/approve", Map.of("status", "APPROVED")));
+            created.increment();
+            ids.add(walletId);
+        }
+        return ids;
+    }
+
+    private void report(double seconds) {
+        System.out.println();
+        System.out.println(EndpointStats.header());
+        long requests = 0;
+        for (Operation op : Operation.values()) {
+            EndpointStats s = stats.get(op);
+            if (s.count() == 0) continue;
+            requests += s.count();
+            System.out.println(s.row(op.name().toLowerCase(Locale.ROOT), seconds));
+        }
+        System.out.printf("%ntotal %.1f req/s%n", requests / seconds);
+    }
+
+    // Expected balances follow TransactionService: a PENDING deposit counts towards balance only,
+    // a PENDING withdrawal towards usableBalance only, DENIED rows towards neither.
+    private boolean checkBalances(JdbcTemplate jdbc, List<Long> walletIds) throws Exception {
+        Map<Long, BigDecimal[]> expected = new HashMap<>();
+        long[] rows = {0};
+        jdbc.query("""
+                select wallet_id,
+                       sum(case when type = 'DEPOSIT' and status <> 'DENIED' then amount
+                                when type = 'WITHDRAW' and status = 'APPROVED' then -amount else 0 end),
+                       sum(case when type = 'DEPOSIT' and status = 'APPROVED' then amount
+                                when type = 'WITHDRAW' and status <> 'DENIED' then -amount else 0 end),
+                       count(*)
+                from (select wallet_id, type, status, amount from transactions
+                      union all
+                      select wallet_id, type, status, amount from transactions_archive) t
+                group by wallet_id""", rs -> {
+            expected.put(rs.getLong(1), new BigDecimal[]{rs.getBigDecimal(2), rs.getBigDecimal(3)});
+            rows[0] += rs.getLong(4);
+        });
+
+        int mismatches = 0;
+        for (Long id : walletIds) {
+            JsonNode w = JSON.readTree(expect(200, get("/api/v1/wallets/" + id)));
+            BigDecimal[] exp = expected.getOrDefault(id, new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+            BigDecimal balance = w.get("balance").decimalValue(), usable = w.get("usableBalance").decimalValue();
+            if (balance.compareTo(exp[0]) != 0 || usable.compareTo(exp[1]) != 0) {
+                mismatches++;
+                System.out.printf("MISMATCH wallet %d: balance %s (history %s), usableBalance %s (history %s)%n",
+                        id, balance, scale(exp[0]), usable, scale(exp[1]));
+            }
+        }
+
+        boolean countsMatch = rows[0] == created.sum();
+        if (!countsMatch) {
+            System.out.printf("MISMATCH %d transactions acknowledged with 201, %d stored%n", created.sum(), rows[0]);
+        }
+        System.out.printf("Invariant check: %d wallets, %d transactions, %d balance mismatches%n",
+                walletIds.size(), rows[0], mismatches);
+        return mismatches == 0 && countsMatch;
+    }
+
+    private static BigDecimal scale(BigDecimal v) {
+        return v.setScale(2, RoundingMode.UNNECESSARY);
+    }
+
+    private HttpResponse<String> post(String path, Object body) throws IOException, InterruptedException {
+        return http.send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                        .header("Authorization", "Bearer " + token)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(JSON.writeValueAsBytes(body)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return http.send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                        .header("Authorization", "Bearer " + token)
+                        .GET()
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String expect(int status, HttpResponse<String> res) {
+        if (res.statusCode() != status) {
+            throw new IllegalStateException(res.request().uri() + " returned " + res.statusCode() + ": " + res.body());
+        }
+        return res.body();
+    }
+}
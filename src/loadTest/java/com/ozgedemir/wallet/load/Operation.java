@@ -0,0 +1,5 @@
+package com.ozgedemir.wallet.load;
+
+enum Operation {
+    DEPOSIT, WITHDRAW, APPROVE, LIST
+}
@@ -0,0 +1,32 @@
+package com.ozgedemir.wallet.load;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Picks wallets with a Zipf distribution: skew 0 is uniform, around 1 a few wallets get most
+ * of the traffic. The k-th wallet (0-based) has weight 1 / (k + 1)^skew.
+ */
+final class WalletPicker {
+
+    private final long[] walletIds;
+    private final double[] cdf;
+
+    WalletPicker(List<Long> walletIds, double skew) {
+        this.walletIds = walletIds.stream().mapToLong(Long::longValue).toArray();
+        this.cdf = new double[this.walletIds.length];
+        double sum = 0;
+        for (int k = 0; k < cdf.length; k++) {
+            sum += 1 / Math.pow(k + 1, skew);
+            cdf[k] = sum;
+        }
+        for (int k = 0; k < cdf.length; k++) cdf[k] /= sum;
+    }
+
+    long next(RandomGenerator rnd) {
+        int i = Arrays.binarySearch(cdf, rnd.nextDouble());
+        if (i < 0) i = -i - 1;
+        return walletIds[Math.min(i, walletIds.length - 1)];
+    }
+}
@@ -0,0 +1,38 @@
+package com.ozgedemir.wallet.balance;
+
+import com.ozgedemir.wallet.domain.entities.Wallet;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Where balance changes go. The row store is selected by {@code wallet.balance.mode}:
+ * {@code direct} (default) updates the wallets row, {@code ledger} appends ledger entries.
+ * {@link ShardedBalanceStore} sits in front of it for wallets spread over balance slots.
+ * Read queries always add uncompacted entries and slots to the row, and the direct store folds a
+ * wallet's leftover entries before checking its balance, so switching is safe.
+ */
+public interface BalanceStore {
+
+    /** Qualifier of the mode-specific store that {@link ShardedBalanceStore} delegates to. */
+    String ROW = "rowBalanceStore";
+
+    /** Loads a wallet whose usable balance is about to be checked and changed. */
+    Optional<Wallet> findForUpdate(Long walletId);
+
+    /** Same as {@link #findForUpdate} for several wallets; missing ids are left out. */
+    List<Wallet> findAllForUpdate(Collection<Long> walletIds);
+
+    /** Usable balance including changes made earlier in the current transaction. */
+    BigDecimal usableBalance(Wallet w);
+
+    void apply(Wallet w, BigDecimal balanceDelta, BigDecimal usableDelta);
+
+    /** True if deposits to this wallet don't write contended rows and need no wallet lock. */
+    boolean appendOnly(Long walletId);
+
+    /** True if every balance change to this wallet is checked and written in one statement, so it needs no wallet lock. */
+    boolean lockFree(Long walletId);
+}
@@ -0,0 +1,122 @@
+package com.ozgedemir.wallet.balance;
+
+import com.ozgedemir.wallet.cache.WalletReadCache;
+import com.ozgedemir.wallet.domain.entities.Wallet;
+import com.ozgedemir.wallet.domain.repos.LedgerEntryRepository;
+import com.ozgedemir.wallet.domain.repos.WalletRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Updates the wallet row in place. How concurrent writers are kept apart depends on the
+ * {@link UpdateStrategy}: {@code Wallet.version}, a DB row lock, or a conditional UPDATE.
+ * Ledger entries left over from ledger mode are folded into the row before a balance check,
+ * so the row alone is the whole balance whenever a debit is decided.
+ */
+@Component
+@Qualifier(BalanceStore.ROW)
+@ConditionalOnProperty(name = "wallet.balance.mode", havingValue = "direct", matchIfMissing = true)
+public class DirectBalanceStore implements BalanceStore {
+
+    private final WalletRepository wallets;
+    private final LedgerEntryRepository entries;
+    private final EntityManager em;
+    private final WalletReadCache walletCache;
+    private final UpdateStrategy strategy;
+
+    public DirectBalanceStore(WalletRepository wallets,
+                              LedgerEntryRepository entries,
+                              EntityManager em,
+                              WalletReadCache walletCache,
+                              @Value("${wallet.balance.update-strategy:optimistic}") UpdateStrategy strategy) {
+        this.wallets = wallets;
+        this.entries = entries;
+        this.em = em;
+        this.walletCache = walletCache;
+        this.strategy = strategy;
+    }
+
+    @Override
+    public Optional<Wallet> findForUpdate(Long walletId) {
+        return strategy == UpdateStrategy.PESSIMISTIC ? wallets.findByIdForUpdate(walletId) : wallets.findById(walletId);
+    }
+
+    @Override
+    public List<Wallet> findAllForUpdate(Collection<Long> walletIds) {
+        return strategy == UpdateStrategy.PESSIMISTIC ? wallets.findAllByIdForUpdate(walletIds) : wallets.findAllById(walletIds);
+    }
+
+    @Override
+    public BigDecimal usableBalance(Wallet w) {
+        foldLeftovers(w);
+        return w.getUsableBalance();
+    }
+
+    @Override
+    public void apply(Wallet w, BigDecimal balanceDelta, BigDecimal usableDelta) {
+        switch (strategy) {
+            case ATOMIC -> {
+                // a reshard folds the slots into the row under the row lock; wait for it in a statement of
+                // its own, so the check below can't see the folded row and the old slots both
+                if (usableDelta.signum() < 0 && w.getSlotCount() > 1) {
+                    wallets.lockRow(w.getId());
+                }
+                // the row count decides, whatever the caller read earlier; callers don't pre-check
+                if (wallets.addIfCovered(w.getId(), balanceDelta, usableDelta) == 0
+                        // uncompacted ledger credits aren't counted by the check: fold them and look once more
+                        && (!foldLeftovers(w) || wallets.addIfCovered(w.getId(), balanceDelta, usableDelta) == 0)) {
+                    throw new InsufficientBalanceException();
+                }
+                // keep the entity in step for the response, but never flush it over the UPDATE
+                em.unwrap(Session.class).setReadOnly(w, true);
+                walletCache.evictAfterCommit(w.getId());
+            }
+            case PESSIMISTIC -> {
+                // approvals reach the wallet through the transaction, not findForUpdate
+                if (em.getLockMode(w) != LockModeType.PESSIMISTIC_WRITE) {
+                    em.lock(w, LockModeType.PESSIMISTIC_WRITE);
+                }
+            }
+            case OPTIMISTIC -> { }
+        }
+        // flushed by dirty checking unless read-only
+        w.setBalance(w.getBalance().add(balanceDelta));
+        w.setUsableBalance(w.getUsableBalance().add(usableDelta));
+    }
+
+    // Direct mode never appends, so this is rare: only after a switch from ledger mode, before the compactor got here.
+    // True if entries were folded.
+    private boolean foldLeftovers(Wallet w) {
+        if (entries.findIdsByWalletId(w.getId(), Limit.of(1)).isEmpty()) return false;
+
+        // write this transaction's changes, then wait for the row lock in a statement of its own, so the
+        // fold below reads the entries as of after a concurrent compaction, never both folded and listed
+        em.flush();
+        wallets.lockRow(w.getId());
+        List<Long> ids = entries.findIdsByWalletId(w.getId(), Limit.unlimited());
+        if (!ids.isEmpty()) {
+            entries.foldIntoWallet(w.getId(), ids);
+            entries.deleteByIdIn(ids);
+            walletCache.evictAfterCommit(w.getId());
+        }
+        em.refresh(w);
+        return !ids.isEmpty();
+    }
+
+    @Override
+    public boolean appendOnly(Long walletId) { return false; }
+
+    @Override
+    public boolean lockFree(Long walletId) { return strategy == UpdateStrategy.ATOMIC; }
+}
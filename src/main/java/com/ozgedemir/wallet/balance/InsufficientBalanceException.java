@@ -0,0 +1,9 @@
+package com.ozgedemir.wallet.balance;
+
+/** The usable balance didn't cover a debit at the moment it was written. */
+public class InsufficientBalanceException extends IllegalStateException {
+
+    public InsufficientBalanceException() {
+        super("Insufficient usable balance");
+    }
+}
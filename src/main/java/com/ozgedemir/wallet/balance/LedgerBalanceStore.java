@@ -0,0 +1,66 @@
+package com.ozgedemir.wallet.balance;
+
+import com.ozgedemir.wallet.cache.WalletReadCache;
+import com.ozgedemir.wallet.domain.entities.LedgerEntry;
+import com.ozgedemir.wallet.domain.entities.Wallet;
+import com.ozgedemir.wallet.domain.repos.LedgerEntryRepository;
+import com.ozgedemir.wallet.domain.repos.WalletRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Appends every balance change as a ledger entry and never writes the wallets row,
+ * so deposits to the same wallet don't contend. Withdrawals lock the row before reading
+ * the usable balance; that serializes them against each other and against the
+ * compactor, which skips locked wallets.
+ */
+@Component
+@Qualifier(BalanceStore.ROW)
+@ConditionalOnProperty(name = "wallet.balance.mode", havingValue = "ledger")
+public class LedgerBalanceStore implements BalanceStore {
+
+    private final WalletRepository wallets;
+    private final LedgerEntryRepository entries;
+    private final WalletReadCache walletCache;
+
+    public LedgerBalanceStore(WalletRepository wallets, LedgerEntryRepository entries, WalletReadCache walletCache) {
+        this.wallets = wallets;
+        this.entries = entries;
+        this.walletCache = walletCache;
+    }
+
+    @Override
+    public Optional<Wallet> findForUpdate(Long walletId) {
+        return wallets.findByIdForUpdate(walletId);
+    }
+
+    @Override
+    public List<Wallet> findAllForUpdate(Collection<Long> walletIds) {
+        return wallets.findAllByIdForUpdate(walletIds);
+    }
+
+    @Override
+    public BigDecimal usableBalance(Wallet w) {
+        // the query auto-flushes entries appended earlier in this transaction
+        return w.getUsableBalance().add(entries.sumUsableDelta(w.getId()));
+    }
+
+    @Override
+    public void apply(Wallet w, BigDecimal balanceDelta, BigDecimal usableDelta) {
+        entries.save(new LedgerEntry(w.getId(), balanceDelta, usableDelta));
+        // the wallet row isn't updated, so the entity listener won't evict it
+        walletCache.evictAfterCommit(w.getId());
+    }
+
+    @Override
+    public boolean appendOnly(Long walletId) { return true; }
+
+    @Override
+    public boolean lockFree(Long walletId) { return false; }
+}
@@ -0,0 +1,56 @@
+package com.ozgedemir.wallet.balance;
+
+import com.ozgedemir.wallet.domain.repos.LedgerEntryRepository;
+import com.ozgedemir.wallet.domain.repos.WalletRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Folds ledger entries into their wallet rows (the snapshots) and deletes them.
+ * Runs in every mode, so entries left behind after switching back to direct mode are drained too.
+ * Each wallet is compacted in its own transaction under the row lock; wallets whose row is
+ * locked by a writer are skipped until the next run. Derived balances are unchanged by a run.
+ */
+@Component
+public class LedgerCompactor {
+
+    private final LedgerEntryRepository entries;
+    private final WalletRepository wallets;
+    private final TransactionTemplate txTemplate;
+    private final int walletsPerRun;
+    private final int entriesPerWallet;
+
+    public LedgerCompactor(LedgerEntryRepository entries,
+                           WalletRepository wallets,
+                           TransactionTemplate txTemplate,
+                           @Value("${wallet.balance.compaction.wallets-per-run:100}") int walletsPerRun,
+                           @Value("${wallet.balance.compaction.entries-per-wallet:5000}") int entriesPerWallet) {
+        this.entries = entries;
+        this.wallets = wallets;
+        this.txTemplate = txTemplate;
+        this.walletsPerRun = walletsPerRun;
+        this.entriesPerWallet = entriesPerWallet;
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.balance.compaction.interval-ms:1000}")
+    public void compact() {
+        for (Long walletId : entries.findWalletIds(Limit.of(walletsPerRun))) {
+            txTemplate.executeWithoutResult(s -> compact(walletId));
+        }
+    }
+
+    private void compact(Long walletId) {
+        if (wallets.lockIfFree(walletId).isEmpty()) return;
+
+        // a fixed id list: entries appended meanwhile are left for the next run
+        List<Long> ids = entries.findIdsByWalletId(walletId, Limit.of(entriesPerWallet));
+        if (ids.isEmpty()) return;
+        entries.foldIntoWallet(walletId, ids);
+        entries.deleteByIdIn(ids);
+    }
+}
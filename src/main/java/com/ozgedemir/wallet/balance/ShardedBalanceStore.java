@@ -0,0 +1,100 @@
+package com.ozgedemir.wallet.balance;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.ozgedemir.wallet.cache.WalletReadCache;
+import com.ozgedemir.wallet.domain.entities.Wallet;
+import com.ozgedemir.wallet.domain.repos.WalletBalanceSlotRepository;
+import com.ozgedemir.wallet.domain.repos.WalletRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Spreads money coming into a sharded wallet ({@code slotCount > 1}) over its balance slots.
+ * Changes that only add (deposits, approving a pending deposit, denying a pending withdrawal)
+ * increment a random slot in place, so concurrent deposits rarely touch the same row and take
+ * no wallet lock. Anything that takes money out goes to the wallet row through the row store,
+ * and the usable-balance check sums row and slots; deposits only raise the slot total, so a
+ * check that passed stays valid. Unsharded wallets, and ledger mode, go straight to the row store.
+ */
+@Component
+@Primary
+public class ShardedBalanceStore implements BalanceStore {
+
+    private final BalanceStore rows;
+    private final WalletRepository wallets;
+    private final WalletBalanceSlotRepository slots;
+    private final WalletReadCache walletCache;
+    // only routes deposits; a stale count can't lose money, the slot update falls back to the row
+    private final LoadingCache<Long, Integer> slotCounts;
+
+    public ShardedBalanceStore(@Qualifier(BalanceStore.ROW) BalanceStore rows,
+                               WalletRepository wallets,
+                               WalletBalanceSlotRepository slots,
+                               WalletReadCache walletCache) {
+        this.rows = rows;
+        this.wallets = wallets;
+        this.slots = slots;
+        this.walletCache = walletCache;
+        this.slotCounts = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofSeconds(10))
+                .build(id -> wallets.findSlotCountById(id).orElse(1));
+    }
+
+    @Override
+    public Optional<Wallet> findForUpdate(Long walletId) {
+        return rows.findForUpdate(walletId);
+    }
+
+    @Override
+    public List<Wallet> findAllForUpdate(Collection<Long> walletIds) {
+        return rows.findAllForUpdate(walletIds);
+    }
+
+    @Override
+    public BigDecimal usableBalance(Wallet w) {
+        BigDecimal usable = rows.usableBalance(w);
+        // slots count whatever the mode; they may have been filled before a switch to ledger mode
+        return w.getSlotCount() > 1 ? usable.add(slots.sumUsable(w.getId())) : usable;
+    }
+
+    @Override
+    public void apply(Wallet w, BigDecimal balanceDelta, BigDecimal usableDelta) {
+        boolean addOnly = balanceDelta.signum() >= 0 && usableDelta.signum() >= 0;
+        // ledger mode appends without contention already
+        if (addOnly && w.getSlotCount() > 1 && !rows.appendOnly(w.getId())) {
+            int slot = ThreadLocalRandom.current().nextInt(w.getSlotCount());
+            if (slots.add(w.getId(), slot, balanceDelta, usableDelta) > 0) {
+                walletCache.evictAfterCommit(w.getId());
+                return;
+            }
+            // resharded since the wallet was loaded
+        }
+        rows.apply(w, balanceDelta, usableDelta);
+    }
+
+    @Override
+    public boolean appendOnly(Long walletId) {
+        return rows.appendOnly(walletId) || slotCounts.get(walletId) > 1;
+    }
+
+    @Override
+    public boolean lockFree(Long walletId) {
+        // sharded wallets keep the in-process lock; resharding takes only the row lock, which atomic
+        // debits of sharded wallets wait for (see DirectBalanceStore)
+        return rows.lockFree(walletId) && slotCounts.get(walletId) == 1;
+    }
+
+    public void forgetSlotCount(Long walletId) {
+        slotCounts.invalidate(walletId);
+    }
+}
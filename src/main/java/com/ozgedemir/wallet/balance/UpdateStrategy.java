@@ -0,0 +1,15 @@
+package com.ozgedemir.wallet.balance;
+
+/**
+ * How {@link DirectBalanceStore} changes the wallet row, set by {@code wallet.balance.update-strategy}.
+ * <ul>
+ *   <li>{@code OPTIMISTIC} (default): read, check, write; a concurrent writer fails on {@code Wallet.version}.</li>
+ *   <li>{@code PESSIMISTIC}: the row is loaded with {@code SELECT ... FOR UPDATE}, so writers queue in the DB.</li>
+ *   <li>{@code ATOMIC}: one conditional {@code UPDATE} checks and changes the balance; no wallet lock is taken.</li>
+ * </ul>
+ */
+public enum UpdateStrategy {
+    OPTIMISTIC,
+    PESSIMISTIC,
+    ATOMIC
+}
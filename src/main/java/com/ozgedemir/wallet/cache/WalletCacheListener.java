@@ -0,0 +1,26 @@
+package com.ozgedemir.wallet.cache;
+
+import com.ozgedemir.wallet.domain.entities.Wallet;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts a wallet from {@link WalletReadCache} after any JPA update to it commits.
+ * Bulk/native UPDATEs bypass this and must call {@link WalletReadCache#evictAfterCommit} themselves.
+ */
+@Component
+public class WalletCacheListener {
+
+    private final WalletReadCache cache;
+
+    public WalletCacheListener(WalletReadCache cache) {
+        this.cache = cache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    void evict(Wallet w) {
+        cache.evictAfterCommit(w.getId());
+    }
+}
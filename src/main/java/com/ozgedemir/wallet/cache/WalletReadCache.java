@@ -0,0 +1,87 @@
+package com.ozgedemir.wallet.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ozgedemir.wallet.dto.wallet.WalletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Bounded read cache for single wallets, keyed by id and tagged with {@code Wallet.version}.
+ * Writers evict after their transaction commits. A reader only stores what it loaded if no
+ * eviction for that wallet's stripe happened since it started loading, and never replaces
+ * a newer version with an older one, so a committed write is never hidden by a slow read.
+ */
+@Component
+public class WalletReadCache {
+
+    public record Entry(Integer version, WalletResponse wallet) {}
+
+    private static final int STRIPES = 64;
+
+    private final Cache<Long, Entry> cache;
+    // bumped on every eviction; a load that overlaps one is not cached
+    private final AtomicLongArray writeStamps = new AtomicLongArray(STRIPES);
+
+    public WalletReadCache(@Value("${wallet.cache.wallets.max-size:10000}") long maxSize,
+                           @Value("${wallet.cache.wallets.ttl:30s}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public WalletResponse get(Long id, Function<Long, Entry> loader) {
+        Entry hit = cache.getIfPresent(id);
+        if (hit != null) return hit.wallet();
+
+        int stripe = stripe(id);
+        long stamp = writeStamps.get(stripe);
+        Entry loaded = loader.apply(id);
+        cache.asMap().compute(id, (k, current) -> {
+            if (writeStamps.get(stripe) != stamp) return current;
+            return current != null && current.version() >= loaded.version() ? current : loaded;
+        });
+        return loaded.wallet();
+    }
+
+    /** Evicts once the surrounding transaction commits, or right away if there is none. */
+    public void evictAfterCommit(Long id) {
+        evictAfterCommit(List.of(id));
+    }
+
+    public void evictAfterCommit(Collection<Long> ids) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            ids.forEach(this::evict);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ids.forEach(WalletReadCache.this::evict);
+            }
+        });
+    }
+
+    private void evict(Long id) {
+        // stamp first: a reader that checks after this point drops its (possibly older) value
+        writeStamps.incrementAndGet(stripe(id));
+        cache.invalidate(id);
+    }
+
+    private static int stripe(Long id) {
+        return (int) (id & (STRIPES - 1));
+    }
+
+    /** Exposed for metrics. */
+    public Cache<Long, Entry> cache() { return cache; }
+}
@@ -0,0 +1,67 @@
+package com.ozgedemir.wallet.concurrency;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded retry with jittered exponential backoff for optimistic-lock failures
+ * that still get past the wallet locks (e.g. writes from another node).
+ * Each attempt must run in its own DB transaction.
+ */
+@Component
+public class OptimisticRetry {
+
+    private final int maxAttempts;
+    private final long baseBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong exhausted = new AtomicLong();
+
+    public OptimisticRetry(@Value("${wallet.concurrency.retry.max-attempts:3}") int maxAttempts,
+                           @Value("${wallet.concurrency.retry.backoff-ms:10}") long baseBackoffMillis,
+                           @Value("${wallet.concurrency.retry.max-backoff-ms:200}") long maxBackoffMillis) {
+        if (maxAttempts < 1) throw new IllegalArgumentException("retry.max-attempts must be at least 1");
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMillis = baseBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    public <T> T run(Supplier<T> attempt) {
+        for (int n = 1; ; n++) {
+            try {
+                return attempt.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (n >= maxAttempts) {
+                    exhausted.incrementAndGet();
+                    throw e;
+                }
+                retries.incrementAndGet();
+                backoff(n);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        // full jitter: sleep a random time in [0, min(max, base * 2^(attempt-1))]
+        long ceiling = Math.min(maxBackoffMillis, baseBackoffMillis << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) return;
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying");
+        }
+    }
+
+    /** Number of attempts that were retried after an optimistic-lock failure. */
+    public long retries() { return retries.get(); }
+
+    /** Number of operations that still failed after the last attempt. */
+    public long exhaustedRetries() { return exhausted.get(); }
+}
@@ -0,0 +1,90 @@
+package com.ozgedemir.wallet.concurrency;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * In-process striped locks keyed by wallet id.
+ * Writers for the same wallet are serialized here before they reach the DB,
+ * so they don't race each other on Wallet.version.
+ */
+@Component
+public class WalletLockRegistry {
+
+    private final ReentrantLock[] stripes;
+    private final long timeoutMillis;
+
+    private final AtomicLong contended = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    public WalletLockRegistry(@Value("${wallet.concurrency.lock-stripes:256}") int stripes,
+                              @Value("${wallet.concurrency.lock-timeout-ms:2000}") long timeoutMillis) {
+        if (stripes <= 0) throw new IllegalArgumentException("lock-stripes must be positive");
+        // round up to a power of two so the stripe index is a simple mask
+        int size = Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new ReentrantLock[Math.max(size, 1)];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public <T> T withLock(Long walletId, Supplier<T> action) {
+        return withLocks(List.of(walletId), action);
+    }
+
+    /**
+     * Runs the action while holding the stripes of all given wallets.
+     * Stripes are always taken in ascending index order, so callers locking
+     * overlapping wallet sets cannot deadlock each other.
+     */
+    public <T> T withLocks(Collection<Long> walletIds, Supplier<T> action) {
+        int[] order = walletIds.stream().mapToInt(this::stripeIndex).distinct().sorted().toArray();
+        int acquired = 0;
+        try {
+            for (int idx : order) {
+                acquire(stripes[idx]);
+                acquired++;
+            }
+            return action.get();
+        } finally {
+            for (int i = acquired - 1; i >= 0; i--) {
+                stripes[order[i]].unlock();
+            }
+        }
+    }
+
+    private void acquire(ReentrantLock lock) {
+        if (lock.tryLock()) return;
+
+        contended.incrementAndGet();
+        try {
+            if (!lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new IllegalStateException("Wallet is busy, please retry");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for wallet lock");
+        }
+    }
+
+    int stripeIndex(Long walletId) {
+        // spread the bits so sequential ids don't cluster on neighbouring stripes
+        int h = Long.hashCode(walletId) * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (stripes.length - 1);
+    }
+
+    /** Number of acquisitions that found the stripe already held and had to wait. */
+    public long contendedAcquisitions() { return contended.get(); }
+
+    /** Number of acquisitions that gave up after the lock timeout. */
+    public long lockTimeouts() { return timeouts.get(); }
+}
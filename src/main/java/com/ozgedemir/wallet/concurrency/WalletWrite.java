@@ -0,0 +1,24 @@
+package com.ozgedemir.wallet.concurrency;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service method that writes wallet balances.
+ * The first argument identifies the wallets: a {@link com.ozgedemir.wallet.dto.tx.WalletScoped} or
+ * {@link com.ozgedemir.wallet.dto.tx.WalletsScoped} request, or a transaction id when {@link #byTransactionId()}
+ * is set (a transfer leg also locks the wallet of the other leg).
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface WalletWrite {
+    boolean byTransactionId() default false;
+
+    /**
+     * The method only adds money. If the active {@link com.ozgedemir.wallet.balance.BalanceStore}
+     * is append-only for the wallet, it runs without the wallet lock.
+     */
+    boolean appendOnly() default false;
+}
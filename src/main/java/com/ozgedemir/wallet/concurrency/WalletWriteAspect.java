@@ -0,0 +1,90 @@
+package com.ozgedemir.wallet.concurrency;
+
+import com.ozgedemir.wallet.balance.BalanceStore;
+import com.ozgedemir.wallet.domain.repos.TransactionRepository;
+import com.ozgedemir.wallet.dto.tx.WalletScoped;
+import com.ozgedemir.wallet.dto.tx.WalletsScoped;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Wraps {@link WalletWrite} methods in retry -> wallet lock -> @Transactional.
+ * Runs before the transaction interceptor, so the lock is held until commit
+ * and every retry gets a fresh DB transaction.
+ * {@code wallet.concurrency.in-process-locks=false} drops the wallet lock and leaves writers
+ * to the update strategy alone (version check, row lock or conditional UPDATE). Benchmarks use
+ * it to measure a strategy by itself; with the lock, optimistic writers rarely conflict.
+ */
+@Aspect
+@Component
+@Order(0)
+public class WalletWriteAspect {
+
+    private final WalletLockRegistry locks;
+    private final OptimisticRetry retry;
+    private final TransactionRepository txs;
+    private final BalanceStore balances;
+    private final boolean inProcessLocks;
+
+    public WalletWriteAspect(WalletLockRegistry locks, OptimisticRetry retry, TransactionRepository txs,
+                             BalanceStore balances,
+                             @Value("${wallet.concurrency.in-process-locks:true}") boolean inProcessLocks) {
+        this.locks = locks; this.retry = retry; this.txs = txs; this.balances = balances;
+        this.inProcessLocks = inProcessLocks;
+    }
+
+    @Around("@annotation(write)")
+    public Object around(ProceedingJoinPoint pjp, WalletWrite write) {
+        Collection<Long> walletIds = resolveWalletIds(pjp.getArgs()[0], write);
+        if (walletIds.isEmpty()) {
+            // unknown wallet/transaction: let the service raise its usual 404
+            return proceed(pjp);
+        }
+        if (!inProcessLocks) {
+            return retry.run(() -> proceed(pjp));
+        }
+        if (walletIds.size() > 1) {
+            // stripes are taken in a fixed order, so opposing multi-wallet writes can't deadlock
+            return retry.run(() -> locks.withLocks(walletIds, () -> proceed(pjp)));
+        }
+        Long walletId = walletIds.iterator().next();
+        if (write.appendOnly() && balances.appendOnly(walletId)) {
+            // nothing to serialize: the write doesn't touch the wallet row
+            return retry.run(() -> proceed(pjp));
+        }
+        if (balances.lockFree(walletId)) {
+            // the conditional UPDATE serializes on the row itself
+            return retry.run(() -> proceed(pjp));
+        }
+        return retry.run(() -> locks.withLock(walletId, () -> proceed(pjp)));
+    }
+
+    private Collection<Long> resolveWalletIds(Object arg, WalletWrite write) {
+        if (write.byTransactionId()) {
+            return arg instanceof Long txId ? txs.findWalletIdsWithRelatedById(txId) : List.of();
+        }
+        if (arg instanceof WalletsScoped scoped) {
+            return scoped.walletIds().stream().filter(Objects::nonNull).distinct().toList();
+        }
+        return arg instanceof WalletScoped scoped && scoped.walletId() != null ? List.of(scoped.walletId()) : List.of();
+    }
+
+    private static Object proceed(ProceedingJoinPoint pjp) {
+        try {
+            return pjp.proceed();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            // service methods don't declare checked exceptions
+            throw new IllegalStateException(t);
+        }
+    }
+}
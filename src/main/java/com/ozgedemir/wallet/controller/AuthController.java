@@ -7,6 +7,8 @@ import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/auth")
 public class AuthController {
@@ -14,9 +16,10 @@ public class AuthController {
     public AuthController(AuthService auth) { this.auth = auth; }
 
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@RequestBody @Valid LoginRequest req) {
-        String token = auth.login(req.username(), req.password());
-        return ResponseEntity.ok(new LoginResponse(token));
+    public CompletableFuture<ResponseEntity<LoginResponse>> login(@RequestBody @Valid LoginRequest req) {
+        // async: the request thread is released while bcrypt runs
+        return auth.login(req.username(), req.password())
+                .thenApply(token -> ResponseEntity.ok(new LoginResponse(token)));
     }
 }
 
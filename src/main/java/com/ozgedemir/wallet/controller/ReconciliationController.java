@@ -0,0 +1,36 @@
+package com.ozgedemir.wallet.controller;
+
+import com.ozgedemir.wallet.dto.wallet.ReconciliationReport;
+import com.ozgedemir.wallet.service.BalanceReconciliationService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(name = "Reconciliation", description = "Check wallet balances against transaction history")
+@RestController
+@RequestMapping("/api/v1/reconciliation")
+public class ReconciliationController {
+
+    private final BalanceReconciliationService reconciliation;
+
+    public ReconciliationController(BalanceReconciliationService reconciliation) {
+        this.reconciliation = reconciliation;
+    }
+
+    // Starts a run in the background; poll GET for the report
+    @PostMapping
+    @PreAuthorize("hasRole('EMPLOYEE')")
+    public ResponseEntity<Void> start() {
+        reconciliation.start();
+        return ResponseEntity.accepted().build();
+    }
+
+    @GetMapping
+    @PreAuthorize("hasRole('EMPLOYEE')")
+    public ResponseEntity<ReconciliationReport> latest() {
+        return ResponseEntity.ok(reconciliation.latest()
+                .orElseThrow(() -> new EntityNotFoundException("No reconciliation has finished yet")));
+    }
+}
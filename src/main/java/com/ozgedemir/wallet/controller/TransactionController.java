@@ -1,36 +1,66 @@
 package com.ozgedemir.wallet.controller;
 
+import com.ozgedemir.wallet.dto.CursorPage;
 import com.ozgedemir.wallet.dto.tx.*;
+import com.ozgedemir.wallet.events.TransactionEventHub;
+import com.ozgedemir.wallet.service.BulkApprovalService;
+import com.ozgedemir.wallet.service.DepositCoalescer;
+import com.ozgedemir.wallet.service.IdempotencyService;
+import com.ozgedemir.wallet.service.PendingClaimService;
+import com.ozgedemir.wallet.service.TransactionBatchService;
+import com.ozgedemir.wallet.service.TransactionExportService;
 import com.ozgedemir.wallet.service.TransactionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.*;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.util.DisconnectedClientHelper;
+
+import java.io.IOException;
 
 @Tag(name = "Transactions", description = "Deposit, withdraw, approve/deny and list")
 @RestController
 @RequestMapping("/api/v1/transactions")
 public class TransactionController {
     private final TransactionService txService;
-    public TransactionController(TransactionService s) { this.txService = s; }
+    private final TransactionBatchService batchService;
+    private final TransactionExportService exportService;
+    private final IdempotencyService idempotency;
+    private final BulkApprovalService bulkApproval;
+    private final PendingClaimService claims;
+    private final DepositCoalescer deposits;
+    private final TransactionEventHub events;
+    public TransactionController(TransactionService s, TransactionBatchService b, TransactionExportService e,
+                                 IdempotencyService i, BulkApprovalService a, PendingClaimService c,
+                                 DepositCoalescer d, TransactionEventHub h) {
+        this.txService = s; this.batchService = b; this.exportService = e; this.idempotency = i;
+        this.bulkApproval = a; this.claims = c; this.deposits = d; this.events = h;
+    }
 
     // 1) Deposit
     @Operation(summary = "Deposit", description = "≤1000 APPROVED, >1000 PENDING")
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "Created"),
             @ApiResponse(responseCode = "400", description = "Validation error"),
-            @ApiResponse(responseCode = "401", description = "Unauthorized")
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "409", description = "Idempotency-Key reused with another request, or still in progress")
     })
     @PostMapping("/deposits")
     @PreAuthorize("hasAnyRole('EMPLOYEE','CUSTOMER')")
-    public ResponseEntity<TransactionResponse> deposit(@Valid @RequestBody DepositRequest req) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(txService.deposit(req));
+    public ResponseEntity<TransactionResponse> deposit(
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody DepositRequest req) {
+        return idempotency.execute(idempotencyKey, "POST /api/v1/transactions/deposits", req, TransactionResponse.class,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(deposits.deposit(req)));
     }
 
     // 2) List
@@ -44,12 +74,55 @@ public class TransactionController {
         return txService.list(walletId, PageRequest.of(page, size));
     }
 
+    // 2b) List with keyset cursor
+    @Operation(summary = "List transactions with a cursor",
+            description = "Newest first. Pass the returned `next` token as `after` to get the following page.")
+    @GetMapping("/scroll")
+    @PreAuthorize("hasAnyRole('EMPLOYEE','CUSTOMER')")
+    public CursorPage<TransactionResponse> scroll(
+            @RequestParam Long walletId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size) {
+        return txService.scroll(walletId, after, size);
+    }
+
+    // 2c) Subscribe to changes
+    @Operation(summary = "Stream transaction events",
+            description = "Server-Sent Events: a `transaction` event whenever one of the wallet's transactions is "
+                    + "created or approved/denied. Slow clients are disconnected; re-read the list after reconnecting.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Event stream"),
+            @ApiResponse(responseCode = "404", description = "Wallet not found"),
+            @ApiResponse(responseCode = "503", description = "Too many subscribers")
+    })
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('EMPLOYEE','CUSTOMER')")
+    public SseEmitter events(@RequestParam Long walletId) {
+        return events.subscribe(walletId);
+    }
+
     // 3) Withdraw
     @Operation(summary = "Withdraw", description = "≤1000 APPROVED, >1000 PENDING. Flag & usable checks apply.")
     @PostMapping("/withdrawals")
     @PreAuthorize("hasAnyRole('EMPLOYEE','CUSTOMER')")
-    public ResponseEntity<TransactionResponse> withdraw(@Valid @RequestBody WithdrawRequest req) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(txService.withdraw(req));
+    public ResponseEntity<TransactionResponse> withdraw(
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody WithdrawRequest req) {
+        return idempotency.execute(idempotencyKey, "POST /api/v1/transactions/withdrawals", req, TransactionResponse.class,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(txService.withdraw(req)));
+    }
+
+    // 3b) Transfer
+    @Operation(summary = "Transfer between two wallets",
+            description = "Withdraws from one wallet and deposits to the other in one DB transaction. "
+                    + "Same threshold rules; a PENDING transfer's legs are approved or denied together.")
+    @PostMapping("/transfers")
+    @PreAuthorize("hasAnyRole('EMPLOYEE','CUSTOMER')")
+    public ResponseEntity<TransferResponse> transfer(
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody TransferRequest req) {
+        return idempotency.execute(idempotencyKey, "POST /api/v1/transactions/transfers", req, TransferResponse.class,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(txService.transfer(req)));
     }
 
     // 4) Approve/Deny
@@ -59,4 +132,55 @@ public class TransactionController {
     public TransactionResponse approve(@PathVariable Long id, @Valid @RequestBody ApproveRequest req) {
         return txService.approve(id, req);
     }
+
+    // 4b) Bulk Approve/Deny
+    @Operation(summary = "Approve or deny many PENDING transactions",
+            description = "Select by `ids`, or by `walletId` and/or `createdBefore`. Rows that are no longer PENDING are skipped.")
+    @PostMapping("/approvals")
+    @PreAuthorize("hasRole('EMPLOYEE')")
+    public BulkApproveResponse approveAll(@Valid @RequestBody BulkApproveRequest req) {
+        return bulkApproval.apply(req);
+    }
+
+    // 4c) Claim pending work
+    @Operation(summary = "Claim the next PENDING transactions",
+            description = "Leases up to `size` of the oldest unclaimed PENDING transactions to the caller. " +
+                    "Others can't approve them until the lease expires; concurrent claimers get disjoint rows.")
+    @PostMapping("/pending/claims")
+    @PreAuthorize("hasRole('EMPLOYEE')")
+    public ClaimResponse claim(@RequestParam(defaultValue = "10") int size, Authentication auth) {
+        return claims.claim(auth.getName(), size);
+    }
+
+    // 5) Batch
+    @Operation(summary = "Apply a batch of deposits/withdrawals",
+            description = "Items are applied in order, in chunked DB transactions. Each item gets its own result.")
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('EMPLOYEE')")
+    public BatchResponse batch(@Valid @RequestBody BatchRequest req) {
+        return batchService.apply(req);
+    }
+
+    // 6) Export
+    @Operation(summary = "Export transactions",
+            description = "Streams the wallet's full history, oldest first, as NDJSON or CSV.")
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('EMPLOYEE','CUSTOMER')")
+    public void export(@RequestParam Long walletId,
+                       @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+                       HttpServletResponse response) throws IOException {
+        // before any header is set: the error handler can't write JSON under a CSV/NDJSON content type
+        exportService.requireWallet(walletId);
+        response.setContentType(format.contentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"wallet-" + walletId + "-transactions." + format.extension() + "\"");
+        try {
+            exportService.export(walletId, format, response.getOutputStream());
+        } catch (IOException e) {
+            // client went away mid-stream; the cursor and transaction are already closed
+            if (DisconnectedClientHelper.isClientDisconnectedException(e)) return;
+            throw e;
+        }
+    }
 }
@@ -1,16 +1,22 @@
 package com.ozgedemir.wallet.controller;
 
 import com.ozgedemir.wallet.domain.enums.Currency;
+import com.ozgedemir.wallet.dto.CursorPage;
 import com.ozgedemir.wallet.dto.wallet.CreateWalletRequest;
+import com.ozgedemir.wallet.dto.wallet.ReshardRequest;
 import com.ozgedemir.wallet.dto.wallet.WalletResponse;
+import com.ozgedemir.wallet.dto.wallet.WalletTotalsResponse;
+import com.ozgedemir.wallet.service.DailyTotalsService;
 import com.ozgedemir.wallet.service.WalletService;
+import com.ozgedemir.wallet.service.WalletShardingService;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.*;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
-import java.util.List;
+import java.time.LocalDate;
 
 @Tag(name = "Wallets", description = "Create & list wallets")
 @RestController
@@ -18,9 +24,13 @@ import java.util.List;
 public class WalletController {
 
     private final WalletService walletService;
+    private final WalletShardingService sharding;
+    private final DailyTotalsService dailyTotals;
 
-    public WalletController(WalletService service) {
+    public WalletController(WalletService service, WalletShardingService sharding, DailyTotalsService dailyTotals) {
         this.walletService = service;
+        this.sharding = sharding;
+        this.dailyTotals = dailyTotals;
     }
 
     @PostMapping
@@ -31,11 +41,36 @@ public class WalletController {
 
     @GetMapping
     @PreAuthorize("hasAnyRole('EMPLOYEE','CUSTOMER')")
-    public ResponseEntity<List<WalletResponse>> list(
+    public ResponseEntity<CursorPage<WalletResponse>> list(
             @RequestParam(required = false) Long customerId,
-            @RequestParam(required = false) Currency currency
+            @RequestParam(required = false) Currency currency,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int size
     ) {
-        return ResponseEntity.ok(walletService.list(customerId, currency));
+        return ResponseEntity.ok(walletService.list(customerId, currency, after, size));
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyRole('EMPLOYEE','CUSTOMER')")
+    public ResponseEntity<WalletResponse> get(@PathVariable Long id) {
+        return ResponseEntity.ok(walletService.get(id));
+    }
+
+    // Spread a hot wallet's deposits over N balance slots (1 = unsharded)
+    @PutMapping("/{id}/slots")
+    @PreAuthorize("hasRole('EMPLOYEE')")
+    public ResponseEntity<WalletResponse> reshard(@PathVariable Long id, @Valid @RequestBody ReshardRequest req) {
+        return ResponseEntity.ok(sharding.reshard(id, req.slots()));
+    }
+
+    // Totals by type and status for [from, to] (UTC days, inclusive), from the daily rollup
+    @GetMapping("/{id}/totals")
+    @PreAuthorize("hasAnyRole('EMPLOYEE','CUSTOMER')")
+    public ResponseEntity<WalletTotalsResponse> totals(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(dailyTotals.summary(id, from, to));
     }
 
 
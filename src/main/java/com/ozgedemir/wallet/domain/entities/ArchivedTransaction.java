@@ -0,0 +1,52 @@
+package com.ozgedemir.wallet.domain.entities;
+
+import com.ozgedemir.wallet.domain.enums.OppositePartyType;
+import com.ozgedemir.wallet.domain.enums.TransactionStatus;
+import com.ozgedemir.wallet.domain.enums.TransactionType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// Read-only view of transactions_archive; rows are moved in by TransactionArchiver with native SQL
+@Entity
+@Immutable
+@Table(name = "transactions_archive")
+@Getter
+@NoArgsConstructor
+public class ArchivedTransaction {
+    @Id
+    private Long id;
+
+    @Column(name = "wallet_id", nullable = false)
+    private Long walletId;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "opposite_party_type", nullable = false)
+    private OppositePartyType oppositePartyType;
+
+    @Column(name = "opposite_party", nullable = false, length = 64)
+    private String oppositeParty;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionStatus status;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "related_transaction_id")
+    private Long relatedTransactionId;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+}
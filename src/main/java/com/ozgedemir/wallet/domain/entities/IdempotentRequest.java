@@ -6,14 +6,20 @@ import java.time.Instant;
 
 @Entity
 @Table(name = "idempotent_requests",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"idempotency_key","endpoint"}))
+        uniqueConstraints = @UniqueConstraint(name = "uq_idem_caller_key", columnNames = {"caller","idempotency_key","endpoint"}))
 @Getter
 @Setter
 @NoArgsConstructor
 public class IdempotentRequest {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "idempotent_requests_seq")
+    @SequenceGenerator(name = "idempotent_requests_seq", sequenceName = "idempotent_requests_seq", allocationSize = 50)
     private Long id;
 
+    // user the key belongs to; the same key from another caller is a different request
+    @Column(nullable = false, length = 100, updatable = false)
+    private String caller;
+
     @Column(name = "idempotency_key", nullable = false, length = 64, updatable = false)
     private String idempotencyKey;
 
@@ -23,6 +29,20 @@ public class IdempotentRequest {
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
 
+    @Column(name = "request_hash", length = 64, updatable = false)
+    private String requestHash;
+
+    // null while the first request is still being processed
+    @Column(name = "response_status")
+    private Integer responseStatus;
+
+    @Column(name = "response_body", length = 4000)
+    private String responseBody;
+
+    // while in flight: after this the claim is stale and may be taken over
+    @Column(name = "claimed_until")
+    private Instant claimedUntil;
+
     @PrePersist
     void onCreate() { if (createdAt == null) createdAt = Instant.now(); }
 }
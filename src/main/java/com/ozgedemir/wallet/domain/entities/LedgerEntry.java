@@ -0,0 +1,38 @@
+package com.ozgedemir.wallet.domain.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Entity
+@Table(name = "ledger_entries")
+@Getter
+@Setter
+@NoArgsConstructor
+public class LedgerEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ledger_entries_seq")
+    @SequenceGenerator(name = "ledger_entries_seq", sequenceName = "ledger_entries_seq", allocationSize = 50)
+    private Long id;
+
+    // plain id, not an association: appending must not load or touch the wallet
+    @Column(name = "wallet_id", nullable = false, updatable = false)
+    private Long walletId;
+
+    @Column(name = "balance_delta", nullable = false, precision = 19, scale = 2, updatable = false)
+    private BigDecimal balanceDelta;
+
+    @Column(name = "usable_delta", nullable = false, precision = 19, scale = 2, updatable = false)
+    private BigDecimal usableDelta;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt = Instant.now();
+
+    public LedgerEntry(Long walletId, BigDecimal balanceDelta, BigDecimal usableDelta) {
+        this.walletId = walletId;
+        this.balanceDelta = balanceDelta;
+        this.usableDelta = usableDelta;
+    }
+}
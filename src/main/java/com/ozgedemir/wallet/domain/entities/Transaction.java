@@ -1,5 +1,6 @@
 package com.ozgedemir.wallet.domain.entities;
 
+import com.ozgedemir.wallet.events.TransactionEventListener;
 import com.ozgedemir.wallet.domain.enums.OppositePartyType;
 import com.ozgedemir.wallet.domain.enums.TransactionStatus;
 import com.ozgedemir.wallet.domain.enums.TransactionType;
@@ -10,12 +11,14 @@ import java.time.Instant;
 
 @Entity
 @Table(name = "transactions")
+@EntityListeners(TransactionEventListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
 public class Transaction {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -42,5 +45,23 @@ public class Transaction {
 
     @Column(name="created_at", nullable=false)
     private Instant createdAt = Instant.now();
+
+    // approval work-queue lease, see PendingClaimService
+    @Column(name="claimed_by", length=100)
+    private String claimedBy;
+
+    @Column(name="claim_expires_at")
+    private Instant claimExpiresAt;
+
+    // set on a transfer's debit leg to its credit leg; the credit leg has none
+    @Column(name="related_transaction_id")
+    private Long relatedTransactionId;
+
+    @Version
+    private Integer version;
+
+    // status as last published by TransactionEventListener; claims and other updates don't publish
+    @Transient
+    private TransactionStatus publishedStatus;
 }
 
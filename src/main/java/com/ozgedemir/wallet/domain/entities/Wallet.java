@@ -1,5 +1,6 @@
 package com.ozgedemir.wallet.domain.entities;
 
+import com.ozgedemir.wallet.cache.WalletCacheListener;
 import com.ozgedemir.wallet.domain.enums.Currency;
 import jakarta.persistence.*;
 import lombok.*;
@@ -8,12 +9,14 @@ import java.math.BigDecimal;
 
 @Entity
 @Table(name = "wallets")
+@EntityListeners(WalletCacheListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
 public class Wallet {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "wallets_seq")
+    @SequenceGenerator(name = "wallets_seq", sequenceName = "wallets_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -36,6 +39,10 @@ public class Wallet {
     @Column(nullable=false, precision=19, scale=2)
     private BigDecimal usableBalance = BigDecimal.ZERO;
 
+    // > 1: deposits go to wallet_balance_slots, see ShardedBalanceStore
+    @Column(name="slot_count", nullable=false)
+    private int slotCount = 1;
+
     @Version
     private Integer version;
 }
@@ -0,0 +1,39 @@
+package com.ozgedemir.wallet.domain.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+// Counter row of a sharded wallet. Written with native set-based updates only; mapped for read queries.
+@Entity
+@Table(name = "wallet_balance_slots")
+@IdClass(WalletBalanceSlot.Key.class)
+@Getter
+@NoArgsConstructor
+public class WalletBalanceSlot {
+
+    @Id
+    @Column(name = "wallet_id")
+    private Long walletId;
+
+    @Id
+    private Integer slot;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal balance;
+
+    @Column(name = "usable_balance", nullable = false, precision = 19, scale = 2)
+    private BigDecimal usableBalance;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long walletId;
+        private Integer slot;
+    }
+}
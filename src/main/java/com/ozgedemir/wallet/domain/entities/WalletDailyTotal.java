@@ -0,0 +1,58 @@
+package com.ozgedemir.wallet.domain.entities;
+
+import com.ozgedemir.wallet.domain.enums.TransactionStatus;
+import com.ozgedemir.wallet.domain.enums.TransactionType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Daily rollup stripe; a day's totals are the sum of its stripes. Written with native increments only;
+// mapped for the summary query.
+@Entity
+@Table(name = "wallet_daily_totals")
+@IdClass(WalletDailyTotal.Key.class)
+@Getter
+@NoArgsConstructor
+public class WalletDailyTotal {
+
+    @Id
+    @Column(name = "wallet_id")
+    private Long walletId;
+
+    @Id
+    @Column(name = "tx_date")
+    private LocalDate txDate;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private TransactionType type;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private TransactionStatus status;
+
+    @Id
+    private int stripe;
+
+    @Column(name = "tx_count", nullable = false)
+    private long count;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long walletId;
+        private LocalDate txDate;
+        private TransactionType type;
+        private TransactionStatus status;
+        private int stripe;
+    }
+}
@@ -0,0 +1,77 @@
+package com.ozgedemir.wallet.domain.repos;
+
+import com.ozgedemir.wallet.domain.entities.ArchivedTransaction;
+import com.ozgedemir.wallet.dto.tx.TransactionResponse;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Same read shapes as TransactionRepository, so results from both tables can be merged
+public interface ArchivedTransactionRepository extends JpaRepository<ArchivedTransaction, Long> {
+
+    long countByWalletId(Long walletId);
+
+    @Query("select new com.ozgedemir.wallet.dto.tx.TransactionResponse(" +
+            "t.id, t.walletId, t.amount, t.type, t.oppositePartyType, t.oppositeParty, t.status, t.createdAt) " +
+            "from ArchivedTransaction t where t.walletId = :walletId " +
+            "order by t.createdAt desc, t.id desc")
+    List<TransactionResponse> scrollFirst(@Param("walletId") Long walletId, Limit limit);
+
+    @Query("select new com.ozgedemir.wallet.dto.tx.TransactionResponse(" +
+            "t.id, t.walletId, t.amount, t.type, t.oppositePartyType, t.oppositeParty, t.status, t.createdAt) " +
+            "from ArchivedTransaction t where t.walletId = :walletId " +
+            "and t.createdAt <= :createdAt and (t.createdAt < :createdAt or t.id < :id) " +
+            "order by t.createdAt desc, t.id desc")
+    List<TransactionResponse> scrollAfter(@Param("walletId") Long walletId,
+                                          @Param("createdAt") Instant createdAt,
+                                          @Param("id") Long id,
+                                          Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.ozgedemir.wallet.dto.tx.TransactionResponse(" +
+            "t.id, t.walletId, t.amount, t.type, t.oppositePartyType, t.oppositeParty, t.status, t.createdAt) " +
+            "from ArchivedTransaction t where t.walletId = :walletId " +
+            "order by t.createdAt, t.id")
+    Stream<TransactionResponse> streamByWalletId(@Param("walletId") Long walletId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.ozgedemir.wallet.dto.tx.TransactionResponse(" +
+            "t.id, t.walletId, t.amount, t.type, t.oppositePartyType, t.oppositeParty, t.status, t.createdAt) " +
+            "from ArchivedTransaction t where t.walletId between :fromId and :toId " +
+            "order by t.walletId, t.createdAt, t.id")
+    Stream<TransactionResponse> streamByWalletIdBetween(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    // Archiver: finalized, old enough, and not locked by anyone else
+    @Query(nativeQuery = true, value =
+            "select id from transactions where status <> 'PENDING' and created_at < :cutoff " +
+            "order by created_at, id limit :size for update skip locked")
+    List<Long> lockArchivable(@Param("cutoff") Instant cutoff, @Param("size") int size);
+
+    @Modifying
+    @Query(nativeQuery = true, value =
+            "insert into transactions_archive(id, wallet_id, amount, type, opposite_party_type, opposite_party, status, " +
+            "created_at, related_transaction_id) " +
+            "select id, wallet_id, amount, type, opposite_party_type, opposite_party, status, created_at, related_transaction_id " +
+            "from transactions where id in (:ids)")
+    int copyFromHot(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "delete from transactions where id in (:ids)")
+    int deleteFromHot(@Param("ids") Collection<Long> ids);
+}
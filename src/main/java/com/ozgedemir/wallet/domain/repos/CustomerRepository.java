@@ -2,9 +2,18 @@ package com.ozgedemir.wallet.domain.repos;
 
 import com.ozgedemir.wallet.domain.entities.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
 import java.util.Optional;
 
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
     Optional<Customer> findByUsername(String username);
-}
 
+    @Transactional
+    @Modifying
+    @Query("update Customer c set c.passwordHash = :hash where c.id = :id")
+    int updatePasswordHash(@Param("id") Long id, @Param("hash") String hash);
+}
@@ -2,8 +2,28 @@ package com.ozgedemir.wallet.domain.repos;
 
 import com.ozgedemir.wallet.domain.entities.IdempotentRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
 import java.util.Optional;
 
 public interface IdempotentRequestRepository extends JpaRepository<IdempotentRequest, Long> {
-    Optional<IdempotentRequest> findByIdempotencyKeyAndEndpoint(String key, String endpoint);
+    Optional<IdempotentRequest> findByCallerAndIdempotencyKeyAndEndpoint(String caller, String key, String endpoint);
+
+    @Modifying
+    @Query("update IdempotentRequest r set r.responseStatus = :status, r.responseBody = :body, r.claimedUntil = null " +
+            "where r.id = :id")
+    int complete(@Param("id") Long id, @Param("status") int status, @Param("body") String body);
+
+    /** Renews a claim whose owner never finished; 0 if it finished or someone else renewed it first. */
+    @Modifying
+    @Query("update IdempotentRequest r set r.claimedUntil = :until, r.createdAt = :now " +
+            "where r.id = :id and r.responseStatus is null and (r.claimedUntil is null or r.claimedUntil < :now)")
+    int takeOver(@Param("id") Long id, @Param("now") Instant now, @Param("until") Instant until);
+
+    @Modifying
+    @Query("delete from IdempotentRequest r where r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") Instant cutoff);
 }
@@ -0,0 +1,38 @@
+package com.ozgedemir.wallet.domain.repos;
+
+import com.ozgedemir.wallet.domain.entities.LedgerEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    @Query("select coalesce(sum(e.usableDelta), cast(0 as BigDecimal)) from LedgerEntry e where e.walletId = :walletId")
+    BigDecimal sumUsableDelta(@Param("walletId") Long walletId);
+
+    @Query("select distinct e.walletId from LedgerEntry e")
+    List<Long> findWalletIds(Limit limit);
+
+    @Query("select e.id from LedgerEntry e where e.walletId = :walletId order by e.id")
+    List<Long> findIdsByWalletId(@Param("walletId") Long walletId, Limit limit);
+
+    // Adds exactly these entries to the wallet row. Caller holds the row lock and deletes them in the same transaction.
+    @Modifying
+    @Query(nativeQuery = true, value =
+            "update wallets set " +
+            "balance = balance + (select coalesce(sum(e.balance_delta), 0) from ledger_entries e where e.id in (:ids)), " +
+            "usable_balance = usable_balance + (select coalesce(sum(e.usable_delta), 0) from ledger_entries e where e.id in (:ids)), " +
+            "version = version + 1 " +
+            "where id = :walletId")
+    int foldIntoWallet(@Param("walletId") Long walletId, @Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from LedgerEntry e where e.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -1,14 +1,160 @@
 package com.ozgedemir.wallet.domain.repos;
 
 import com.ozgedemir.wallet.domain.entities.Transaction;
+import com.ozgedemir.wallet.domain.enums.TransactionStatus;
+import com.ozgedemir.wallet.dto.tx.TransactionResponse;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
     Page<Transaction> findByWalletId(Long walletId, Pageable pageable);
 
+    long countByWalletId(Long walletId);
+
+    // Transfer legs are linked debit -> credit: the debit's relatedTransactionId is the credit's id.
+    // Each branch below follows the link one way, by primary key or idx_tx_related.
+
+    // Wallets of a transaction and, for a transfer leg, of the other leg
+    @Query("select t.wallet.id from Transaction t where t.id = :id " +
+            "union select c.wallet.id from Transaction d join Transaction c on c.id = d.relatedTransactionId where d.id = :id " +
+            "union select d.wallet.id from Transaction d where d.relatedTransactionId = :id")
+    List<Long> findWalletIdsWithRelatedById(@Param("id") Long id);
+
+    // The debit leg of a transfer, given its credit leg
+    Optional<Transaction> findFirstByRelatedTransactionId(Long id);
+
+    // Other legs of the given transfer legs, if still in the given status
+    @Query("select c.id from Transaction d join Transaction c on c.id = d.relatedTransactionId " +
+            "where d.id in :ids and c.status = :status " +
+            "union select d.id from Transaction d where d.relatedTransactionId in :ids and d.status = :status")
+    List<Long> findRelatedIds(@Param("ids") Collection<Long> ids, @Param("status") TransactionStatus status);
+
+    // Keyset pagination, newest first. Backed by idx_tx_wallet_created; no count query.
+    @Query("select new com.ozgedemir.wallet.dto.tx.TransactionResponse(" +
+            "t.id, t.wallet.id, t.amount, t.type, t.oppositePartyType, t.oppositeParty, t.status, t.createdAt) " +
+            "from Transaction t where t.wallet.id = :walletId " +
+            "order by t.createdAt desc, t.id desc")
+    List<TransactionResponse> scrollFirst(@Param("walletId") Long walletId, Limit limit);
+
+    @Query("select new com.ozgedemir.wallet.dto.tx.TransactionResponse(" +
+            "t.id, t.wallet.id, t.amount, t.type, t.oppositePartyType, t.oppositeParty, t.status, t.createdAt) " +
+            "from Transaction t where t.wallet.id = :walletId " +
+            "and t.createdAt <= :createdAt and (t.createdAt < :createdAt or t.id < :id) " +
+            "order by t.createdAt desc, t.id desc")
+    List<TransactionResponse> scrollAfter(@Param("walletId") Long walletId,
+                                            @Param("createdAt") Instant createdAt,
+                                            @Param("id") Long id,
+                                            Limit limit);
+
+    // Full history for export, oldest first. Forward-only cursor; the caller must close the stream
+    // inside a transaction. DTO projection, so nothing piles up in the persistence context.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.ozgedemir.wallet.dto.tx.TransactionResponse(" +
+            "t.id, t.wallet.id, t.amount, t.type, t.oppositePartyType, t.oppositeParty, t.status, t.createdAt) " +
+            "from Transaction t where t.wallet.id = :walletId " +
+            "order by t.createdAt, t.id")
+    Stream<TransactionResponse> streamByWalletId(@Param("walletId") Long walletId);
+
+    // Reconciliation: a wallet id range, grouped by wallet in idx_tx_wallet_created order
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.ozgedemir.wallet.dto.tx.TransactionResponse(" +
+            "t.id, t.wallet.id, t.amount, t.type, t.oppositePartyType, t.oppositeParty, t.status, t.createdAt) " +
+            "from Transaction t where t.wallet.id between :fromId and :toId " +
+            "order by t.wallet.id, t.createdAt, t.id")
+    Stream<TransactionResponse> streamByWalletIdBetween(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    // [type, count, sum(amount)] per transaction type for the given status
+    @Query("select t.type, count(t), sum(t.amount) from Transaction t where t.status = :status group by t.type")
+    List<Object[]> totalsByType(@Param("status") TransactionStatus status);
+
+    // Bulk approval: ids to finalize, in id order, optionally narrowed to a wallet / creation time
+    @Query("select t.id from Transaction t where t.status = :status " +
+            "and (:walletId is null or t.wallet.id = :walletId) " +
+            "and (:before is null or t.createdAt < :before) " +
+            "and t.id > :afterId order by t.id")
+    List<Long> findIdsByStatus(@Param("status") TransactionStatus status,
+                               @Param("walletId") Long walletId,
+                               @Param("before") Instant before,
+                               @Param("afterId") long afterId,
+                               Limit limit);
+
+    @Query("select distinct t.wallet.id from Transaction t where t.id in :ids and t.status = :status")
+    List<Long> findWalletIdsByIdInAndStatus(@Param("ids") Collection<Long> ids,
+                                            @Param("status") TransactionStatus status);
+
+    // One UPDATE for every wallet touched by the given PENDING transactions:
+    // balance -= sum(amount of balanceType), usable_balance += sum(amount of usableType).
+    // Must run before finalizePending, while the rows are still PENDING.
+    @Modifying
+    @Query(nativeQuery = true, value =
+            "update wallets w set " +
+            "balance = w.balance - coalesce((select sum(t.amount) from transactions t " +
+            "  where t.wallet_id = w.id and t.id in (:ids) and t.status = 'PENDING' and t.type = :balanceType), 0), " +
+            "usable_balance = w.usable_balance + coalesce((select sum(t.amount) from transactions t " +
+            "  where t.wallet_id = w.id and t.id in (:ids) and t.status = 'PENDING' and t.type = :usableType), 0), " +
+            "version = w.version + 1 " +
+            "where w.id in (select t.wallet_id from transactions t where t.id in (:ids) and t.status = 'PENDING')")
+    int applyPendingToWallets(@Param("ids") Collection<Long> ids,
+                              @Param("balanceType") String balanceType,
+                              @Param("usableType") String usableType);
+
+    @Modifying
+    @Query("update Transaction t set t.status = :status, t.version = t.version + 1 " +
+            "where t.id in :ids and t.status = :pending")
+    int finalizePending(@Param("ids") Collection<Long> ids,
+                        @Param("status") TransactionStatus status,
+                        @Param("pending") TransactionStatus pending);
+
+    // Bulk approval: the PENDING rows not leased to another worker, locked so that a claimer
+    // (SKIP LOCKED) can't lease them between this check and the status update
+    @Query(nativeQuery = true, value =
+            "select id from transactions where id in (:ids) and status = 'PENDING' " +
+            "and (claimed_by is null or claimed_by = :worker or claim_expires_at is null or claim_expires_at < :now) " +
+            "order by id for update")
+    List<Long> lockApprovable(@Param("ids") Collection<Long> ids, @Param("worker") String worker, @Param("now") Instant now);
+
+    @Query("select t.id from Transaction t where t.id in :ids and t.status = :status " +
+            "and t.claimedBy is not null and (:worker is null or t.claimedBy <> :worker) and t.claimExpiresAt >= :now")
+    List<Long> findLeasedToOthers(@Param("ids") Collection<Long> ids, @Param("status") TransactionStatus status,
+                                  @Param("worker") String worker, @Param("now") Instant now);
+
+    // Claim queue: oldest PENDING rows with no live lease. Rows locked by another claimer are skipped, not waited on.
+    @Query(nativeQuery = true, value =
+            "select id from transactions " +
+            "where status = 'PENDING' and (claim_expires_at is null or claim_expires_at < :now) " +
+            "order by created_at, id limit :size for update skip locked")
+    List<Long> lockClaimable(@Param("now") Instant now, @Param("size") int size);
+
+    @Modifying
+    @Query("update Transaction t set t.claimedBy = :worker, t.claimExpiresAt = :until where t.id in :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("worker") String worker, @Param("until") Instant until);
+
+    @Query("select new com.ozgedemir.wallet.dto.tx.TransactionResponse(" +
+            "t.id, t.wallet.id, t.amount, t.type, t.oppositePartyType, t.oppositeParty, t.status, t.createdAt) " +
+            "from Transaction t where t.id in :ids order by t.createdAt, t.id")
+    List<TransactionResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
     // (İstersen ileride filtreli listeleme için şu imzaları da ekleyebilirsin)
     // Page<Transaction> findByWalletIdAndType(Long walletId, TransactionType type, Pageable pageable);
     // Page<Transaction> findByWalletIdAndStatus(Long walletId, TransactionStatus status, Pageable pageable);
@@ -0,0 +1,49 @@
+package com.ozgedemir.wallet.domain.repos;
+
+import com.ozgedemir.wallet.domain.entities.WalletBalanceSlot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface WalletBalanceSlotRepository extends JpaRepository<WalletBalanceSlot, WalletBalanceSlot.Key> {
+
+    @Query("select coalesce(sum(s.usableBalance), cast(0 as BigDecimal)) from WalletBalanceSlot s where s.walletId = :walletId")
+    BigDecimal sumUsable(@Param("walletId") Long walletId);
+
+    // In-place increment: concurrent deposits only contend when they pick the same slot.
+    // 0 rows means the slot is gone (the wallet was resharded).
+    @Modifying
+    @Query(nativeQuery = true, value =
+            "update wallet_balance_slots set balance = balance + :balanceDelta, usable_balance = usable_balance + :usableDelta " +
+            "where wallet_id = :walletId and slot = :slot")
+    int add(@Param("walletId") Long walletId,
+            @Param("slot") int slot,
+            @Param("balanceDelta") BigDecimal balanceDelta,
+            @Param("usableDelta") BigDecimal usableDelta);
+
+    @Query(nativeQuery = true, value = "select slot from wallet_balance_slots where wallet_id = :walletId for update")
+    List<Integer> lockAll(@Param("walletId") Long walletId);
+
+    // Moves every slot into the wallet row and sets the new slot count. Caller holds the wallet and slot locks.
+    @Modifying
+    @Query(nativeQuery = true, value =
+            "update wallets set " +
+            "balance = balance + (select coalesce(sum(s.balance), 0) from wallet_balance_slots s where s.wallet_id = :walletId), " +
+            "usable_balance = usable_balance + (select coalesce(sum(s.usable_balance), 0) from wallet_balance_slots s where s.wallet_id = :walletId), " +
+            "slot_count = :slotCount, version = version + 1 " +
+            "where id = :walletId")
+    int foldIntoWallet(@Param("walletId") Long walletId, @Param("slotCount") int slotCount);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "delete from wallet_balance_slots where wallet_id = :walletId")
+    int deleteAll(@Param("walletId") Long walletId);
+
+    @Modifying
+    @Query(nativeQuery = true, value =
+            "insert into wallet_balance_slots(wallet_id, slot, balance, usable_balance) values (:walletId, :slot, 0, 0)")
+    int create(@Param("walletId") Long walletId, @Param("slot") int slot);
+}
@@ -0,0 +1,66 @@
+package com.ozgedemir.wallet.domain.repos;
+
+import com.ozgedemir.wallet.domain.entities.WalletDailyTotal;
+import com.ozgedemir.wallet.dto.wallet.TotalsLine;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface WalletDailyTotalRepository extends JpaRepository<WalletDailyTotal, WalletDailyTotal.Key> {
+
+    @Query("select new com.ozgedemir.wallet.dto.wallet.TotalsLine(t.type, t.status, sum(t.count), sum(t.amount)) " +
+            "from WalletDailyTotal t where t.walletId = :walletId and t.txDate between :from and :to " +
+            "group by t.type, t.status order by t.type, t.status")
+    List<TotalsLine> sumBetween(@Param("walletId") Long walletId,
+                                @Param("from") LocalDate from,
+                                @Param("to") LocalDate to);
+
+    // In-place increment of one stripe; 0 rows means the stripe doesn't exist yet, see create
+    @Modifying
+    @Query(nativeQuery = true, value =
+            "update wallet_daily_totals set tx_count = tx_count + :count, amount = amount + :amount " +
+            "where wallet_id = :walletId and tx_date = :date and type = :type and status = :status and stripe = :stripe")
+    int add(@Param("walletId") Long walletId,
+            @Param("date") LocalDate date,
+            @Param("type") String type,
+            @Param("status") String status,
+            @Param("stripe") int stripe,
+            @Param("count") long count,
+            @Param("amount") BigDecimal amount);
+
+    // Zero stripe to increment; a concurrent writer may have created it first
+    @Modifying
+    @Query(nativeQuery = true, value =
+            "insert into wallet_daily_totals(wallet_id, tx_date, type, status, stripe, tx_count, amount) " +
+            "values (:walletId, :date, :type, :status, :stripe, 0, 0) on conflict do nothing")
+    int create(@Param("walletId") Long walletId,
+               @Param("date") LocalDate date,
+               @Param("type") String type,
+               @Param("status") String status,
+               @Param("stripe") int stripe);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "delete from wallet_daily_totals where wallet_id between :fromId and :toId")
+    int deleteForWallets(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    // Backfill: rebuilds a wallet id range from the hot table and the archive. One statement,
+    // one snapshot, so a row the archiver moves concurrently is counted exactly once.
+    // Everything lands on stripe 0. created_at holds UTC wall-clock time (hibernate.jdbc.time_zone
+    // is UTC), so its date is the UTC day that DailyTotalsService.day computes for live writes.
+    @Modifying
+    @Query(nativeQuery = true, value =
+            "insert into wallet_daily_totals(wallet_id, tx_date, type, status, tx_count, amount) " +
+            "select wallet_id, cast(created_at as date), type, status, count(*), sum(amount) from (" +
+            "select wallet_id, created_at, type, status, amount from transactions " +
+            "where wallet_id between :fromId and :toId " +
+            "union all " +
+            "select wallet_id, created_at, type, status, amount from transactions_archive " +
+            "where wallet_id between :fromId and :toId" +
+            ") t group by wallet_id, cast(created_at as date), type, status")
+    int rebuildForWallets(@Param("fromId") long fromId, @Param("toId") long toId);
+}
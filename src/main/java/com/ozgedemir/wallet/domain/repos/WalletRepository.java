@@ -2,13 +2,107 @@ package com.ozgedemir.wallet.domain.repos;
 
 import com.ozgedemir.wallet.domain.entities.Wallet;
 import com.ozgedemir.wallet.domain.enums.Currency;
+import com.ozgedemir.wallet.dto.wallet.WalletResponse;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface WalletRepository extends JpaRepository<Wallet, Long> {
-    List<Wallet> findByCustomerId(Long customerId);
-    List<Wallet> findByCurrency(Currency currency);
-    List<Wallet> findByCustomerIdAndCurrency(Long customerId, Currency currency);
 
+    // Balances as clients see them: the row plus ledger entries not yet compacted into it plus balance slots.
+    // Computed in the same statement, so a concurrent compaction or reshard is seen either fully or not at all.
+    String BALANCE = "w.balance + coalesce((select sum(e.balanceDelta) from LedgerEntry e " +
+            "where e.walletId = w.id), cast(0 as BigDecimal)) + coalesce((select sum(s.balance) " +
+            "from WalletBalanceSlot s where s.walletId = w.id), cast(0 as BigDecimal))";
+    String USABLE_BALANCE = "w.usableBalance + coalesce((select sum(e.usableDelta) from LedgerEntry e " +
+            "where e.walletId = w.id), cast(0 as BigDecimal)) + coalesce((select sum(s.usableBalance) " +
+            "from WalletBalanceSlot s where s.walletId = w.id), cast(0 as BigDecimal))";
+    String SELECT_RESPONSE = "select new com.ozgedemir.wallet.dto.wallet.WalletResponse(" +
+            "w.id, w.customer.id, w.walletName, w.currency, w.activeForShopping, w.activeForWithdraw, " +
+            BALANCE + ", " + USABLE_BALANCE + ") from Wallet w ";
+
+    @Query("select new com.ozgedemir.wallet.domain.repos.WalletRow(" +
+            "w.id, w.customer.id, w.walletName, w.currency, w.activeForShopping, w.activeForWithdraw, " +
+            BALANCE + ", " + USABLE_BALANCE + ", w.version) from Wallet w where w.id = :id")
+    Optional<WalletRow> findRowById(@Param("id") Long id);
+
+    // Keyset pages in id order, projected straight into the DTO: no managed entities, no Customer proxies.
+    // Ids start at 1, so afterId = 0 is the first page.
+    @Query(SELECT_RESPONSE + "where w.id > :afterId order by w.id")
+    List<WalletResponse> scroll(@Param("afterId") long afterId, Limit limit);
+
+    @Query(SELECT_RESPONSE + "where w.customer.id = :customerId and w.id > :afterId order by w.id")
+    List<WalletResponse> scrollByCustomer(@Param("customerId") Long customerId,
+                                          @Param("afterId") long afterId,
+                                          Limit limit);
+
+    @Query(SELECT_RESPONSE + "where w.currency = :currency and w.id > :afterId order by w.id")
+    List<WalletResponse> scrollByCurrency(@Param("currency") Currency currency,
+                                          @Param("afterId") long afterId,
+                                          Limit limit);
+
+    @Query(SELECT_RESPONSE + "where w.customer.id = :customerId and w.currency = :currency and w.id > :afterId " +
+            "order by w.id")
+    List<WalletResponse> scrollByCustomerAndCurrency(@Param("customerId") Long customerId,
+                                                     @Param("currency") Currency currency,
+                                                     @Param("afterId") long afterId,
+                                                     Limit limit);
+
+    // Reconciliation: derived balances of a wallet id range, in id order
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SELECT_RESPONSE + "where w.id between :fromId and :toId order by w.id")
+    Stream<WalletResponse> streamByIdBetween(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Query("select w.slotCount from Wallet w where w.id = :id")
+    Optional<Integer> findSlotCountById(@Param("id") Long id);
+
+    // Row locks for ledger mode, taken in id order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select w from Wallet w where w.id = :id")
+    Optional<Wallet> findByIdForUpdate(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select w from Wallet w where w.id in :ids order by w.id")
+    List<Wallet> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    // Check and write in one statement for the atomic update strategy; 0 if the usable balance
+    // (row plus balance slots) would go negative. Crediting deltas always match.
+    // Uncompacted ledger entries count only when they are net debits: a concurrent compaction can
+    // make the re-checked row and the entries overlap, which must only ever make the check stricter.
+    @Modifying
+    @Query(nativeQuery = true, value =
+            "update wallets set balance = balance + :balanceDelta, usable_balance = usable_balance + :usableDelta, " +
+            "version = version + 1 where id = :id and (:usableDelta >= 0 or usable_balance + :usableDelta + " +
+            "(select coalesce(sum(s.usable_balance), 0) from wallet_balance_slots s where s.wallet_id = :id) + " +
+            "(select least(coalesce(sum(e.usable_delta), 0), 0) from ledger_entries e where e.wallet_id = :id) >= 0)")
+    int addIfCovered(@Param("id") Long id,
+                     @Param("balanceDelta") BigDecimal balanceDelta,
+                     @Param("usableDelta") BigDecimal usableDelta);
+
+    // Waits for the row lock, without the version check of a JPA lock
+    @Query(nativeQuery = true, value = "select id from wallets where id = :id for update")
+    List<Long> lockRow(@Param("id") Long id);
+
+    // Empty if someone else holds the row lock
+    @Query(nativeQuery = true, value = "select id from wallets where id = :id for update skip locked")
+    List<Long> lockIfFree(@Param("id") Long id);
+
+    @Query("select coalesce(max(w.id), 0) from Wallet w")
+    long maxId();
 }
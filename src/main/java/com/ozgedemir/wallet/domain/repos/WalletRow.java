@@ -0,0 +1,24 @@
+package com.ozgedemir.wallet.domain.repos;
+
+import com.ozgedemir.wallet.domain.enums.Currency;
+import com.ozgedemir.wallet.dto.wallet.WalletResponse;
+
+import java.math.BigDecimal;
+
+/** A wallet read in one statement with its derived balances and row version. */
+public record WalletRow(
+        Long id,
+        Long customerId,
+        String walletName,
+        Currency currency,
+        boolean activeForShopping,
+        boolean activeForWithdraw,
+        BigDecimal balance,
+        BigDecimal usableBalance,
+        Integer version
+) {
+    public WalletResponse toResponse() {
+        return new WalletResponse(id, customerId, walletName, currency,
+                activeForShopping, activeForWithdraw, balance, usableBalance);
+    }
+}
@@ -0,0 +1,12 @@
+package com.ozgedemir.wallet.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ * {@code next} is an opaque token for the following page, or null on the last page.
+ */
+public record CursorPage<T>(
+        List<T> items,
+        String next
+) {}
@@ -0,0 +1,15 @@
+package com.ozgedemir.wallet.dto.tx;
+
+import com.ozgedemir.wallet.domain.enums.OppositePartyType;
+import com.ozgedemir.wallet.domain.enums.TransactionType;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.math.BigDecimal;
+
+public record BatchItem(
+        @NotNull TransactionType type,
+        @NotNull Long walletId,
+        @NotNull @Positive BigDecimal amount,
+        @NotNull OppositePartyType oppositePartyType,
+        String oppositeParty
+) {}
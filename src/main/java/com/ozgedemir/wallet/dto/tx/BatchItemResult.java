@@ -0,0 +1,16 @@
+package com.ozgedemir.wallet.dto.tx;
+
+public record BatchItemResult(
+        int index,
+        boolean success,
+        TransactionResponse transaction,
+        String error
+) {
+    public static BatchItemResult ok(int index, TransactionResponse tx) {
+        return new BatchItemResult(index, true, tx, null);
+    }
+
+    public static BatchItemResult failed(int index, String error) {
+        return new BatchItemResult(index, false, null, error);
+    }
+}
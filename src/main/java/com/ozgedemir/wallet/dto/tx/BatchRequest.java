@@ -0,0 +1,10 @@
+package com.ozgedemir.wallet.dto.tx;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public record BatchRequest(
+        @NotEmpty @Size(max = 10000) List<@Valid BatchItem> items
+) {}
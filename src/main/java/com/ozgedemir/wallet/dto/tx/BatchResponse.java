@@ -0,0 +1,9 @@
+package com.ozgedemir.wallet.dto.tx;
+
+import java.util.List;
+
+public record BatchResponse(
+        int succeeded,
+        int failed,
+        List<BatchItemResult> results
+) {}
@@ -0,0 +1,16 @@
+package com.ozgedemir.wallet.dto.tx;
+
+import com.ozgedemir.wallet.domain.enums.TransactionStatus;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.Instant;
+import java.util.List;
+
+/** Either {@code ids}, or a filter of {@code walletId} and/or {@code createdBefore}. */
+public record BulkApproveRequest(
+        @NotNull TransactionStatus status,
+        @Size(max = 10000) List<@NotNull Long> ids,
+        Long walletId,
+        Instant createdBefore
+) {}
@@ -0,0 +1,8 @@
+package com.ozgedemir.wallet.dto.tx;
+
+import com.ozgedemir.wallet.domain.enums.TransactionStatus;
+
+public record BulkApproveResponse(
+        TransactionStatus status,
+        int finalized
+) {}
@@ -0,0 +1,9 @@
+package com.ozgedemir.wallet.dto.tx;
+
+import java.time.Instant;
+import java.util.List;
+
+public record ClaimResponse(
+        Instant leaseExpiresAt,
+        List<TransactionResponse> transactions
+) {}
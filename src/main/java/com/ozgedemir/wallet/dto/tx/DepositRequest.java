@@ -10,4 +10,4 @@ public record DepositRequest(
         @Positive BigDecimal amount,
         @NotNull OppositePartyType oppositePartyType,
         String source
-) {}
+) implements WalletScoped {}
@@ -0,0 +1,20 @@
+package com.ozgedemir.wallet.dto.tx;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+public record TransferRequest(
+        @NotNull Long fromWalletId,
+        @NotNull Long toWalletId,
+        @NotNull @Positive BigDecimal amount
+) implements WalletsScoped {
+
+    @Override
+    public Collection<Long> walletIds() {
+        return List.of(fromWalletId, toWalletId);
+    }
+}
@@ -0,0 +1,7 @@
+package com.ozgedemir.wallet.dto.tx;
+
+/** The two legs of a transfer; both are APPROVED, or both PENDING when the amount is over the threshold. */
+public record TransferResponse(
+        TransactionResponse debit,
+        TransactionResponse credit
+) {}
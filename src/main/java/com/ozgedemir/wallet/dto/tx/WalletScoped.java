@@ -0,0 +1,6 @@
+package com.ozgedemir.wallet.dto.tx;
+
+/** A request that targets a single wallet. */
+public interface WalletScoped {
+    Long walletId();
+}
@@ -0,0 +1,8 @@
+package com.ozgedemir.wallet.dto.tx;
+
+import java.util.Collection;
+
+/** A request that writes several wallets at once. */
+public interface WalletsScoped {
+    Collection<Long> walletIds();
+}
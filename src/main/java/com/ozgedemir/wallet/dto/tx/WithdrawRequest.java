@@ -10,4 +10,4 @@ public record WithdrawRequest(
         @Positive BigDecimal amount,
         @NotNull OppositePartyType oppositePartyType,
         String destination
-) {}
\ No newline at end of file
+) implements WalletScoped {}
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.ozgedemir.wallet.dto.wallet;
+
+import java.math.BigDecimal;
+
+public record BalanceMismatch(
+        Long walletId,
+        BigDecimal expectedBalance,
+        BigDecimal actualBalance,
+        BigDecimal expectedUsableBalance,
+        BigDecimal actualUsableBalance
+) {}
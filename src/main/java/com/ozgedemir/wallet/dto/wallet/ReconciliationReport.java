@@ -0,0 +1,14 @@
+package com.ozgedemir.wallet.dto.wallet;
+
+import java.time.Instant;
+import java.util.List;
+
+// mismatches holds at most wallet.reconciliation.max-reported entries; mismatchCount is the full count
+public record ReconciliationReport(
+        Instant startedAt,
+        Instant finishedAt,
+        long walletsChecked,
+        long transactionsScanned,
+        long mismatchCount,
+        List<BalanceMismatch> mismatches
+) {}
@@ -0,0 +1,8 @@
+package com.ozgedemir.wallet.dto.wallet;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+public record ReshardRequest(
+        @Min(1) @Max(64) int slots
+) {}
@@ -0,0 +1,13 @@
+package com.ozgedemir.wallet.dto.wallet;
+
+import com.ozgedemir.wallet.domain.enums.TransactionStatus;
+import com.ozgedemir.wallet.domain.enums.TransactionType;
+
+import java.math.BigDecimal;
+
+public record TotalsLine(
+        TransactionType type,
+        TransactionStatus status,
+        Long count,
+        BigDecimal amount
+) {}
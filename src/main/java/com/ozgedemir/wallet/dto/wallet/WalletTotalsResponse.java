@@ -0,0 +1,11 @@
+package com.ozgedemir.wallet.dto.wallet;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record WalletTotalsResponse(
+        Long walletId,
+        LocalDate from,
+        LocalDate to,
+        List<TotalsLine> totals
+) {}
@@ -1,7 +1,9 @@
 package com.ozgedemir.wallet.errorhandler;
 
+import com.ozgedemir.wallet.service.DepositOutcomeUnknownException;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.*;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -10,6 +12,7 @@ import org.springframework.web.bind.annotation.*;
 import java.time.Instant;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
@@ -43,6 +46,14 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleConcurrentUpdate(OptimisticLockingFailureException ex,
+                                                         HttpServletRequest req) {
+        Map<String, Object> body = baseBody(HttpStatus.CONFLICT, req);
+        body.put("message", "Wallet was modified concurrently, please retry");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Object> handleBadRequest(IllegalArgumentException ex,
                                                    HttpServletRequest req) {
@@ -51,6 +62,25 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
     }
 
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Object> handleOverloaded(RejectedExecutionException ex,
+                                                   HttpServletRequest req) {
+        Map<String, Object> body = baseBody(HttpStatus.SERVICE_UNAVAILABLE, req);
+        body.put("message", "Server is busy, please retry");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(body);
+    }
+
+    // not a conflict: the deposit may yet commit, the client must look before retrying
+    @ExceptionHandler(DepositOutcomeUnknownException.class)
+    public ResponseEntity<Object> handleOutcomeUnknown(DepositOutcomeUnknownException ex,
+                                                       HttpServletRequest req) {
+        Map<String, Object> body = baseBody(HttpStatus.GATEWAY_TIMEOUT, req);
+        body.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(body);
+    }
+
     private Map<String, Object> baseBody(HttpStatus status, HttpServletRequest req) {
         Map<String, Object> body = new LinkedHashMap<>();
         body.put("timestamp", Instant.now().toString());
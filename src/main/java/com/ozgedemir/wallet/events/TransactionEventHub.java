@@ -0,0 +1,265 @@
+package com.ozgedemir.wallet.events;
+
+import com.ozgedemir.wallet.domain.repos.WalletRepository;
+import com.ozgedemir.wallet.dto.tx.TransactionResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Server-Sent Events of transaction changes, per wallet.
+ * Writers publish after their DB transaction commits; publishing only offers to each
+ * subscriber's bounded queue and never waits on a client. Each queue is drained into its stream
+ * on a virtual thread of its own, so a client that stops reading holds up only itself.
+ * A subscriber whose queue is full, or whose send has been stuck longer than
+ * {@code wallet.events.send-timeout} (checked on each heartbeat), is disconnected rather than
+ * buffered for; it reconnects and re-reads the list. Subscribers are capped in total and per wallet.
+ * Only a subscriber's own drain thread completes its emitter: completing waits for the lock a stalled
+ * send holds, so the publishing and heartbeat threads just mark it closed and interrupt the sender.
+ */
+@Component
+public class TransactionEventHub {
+
+    private static final Object PING = new Object();
+    // close reason of a stream that ends normally rather than with an error
+    private static final Throwable DONE = new Throwable("completed", null, false, false);
+
+    private final class Subscriber {
+        final Long walletId;
+        final SseEmitter emitter;
+        final BlockingQueue<Object> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+        // DONE or the error to complete the emitter with once closed, null while open
+        final AtomicReference<Throwable> closed = new AtomicReference<>();
+        // the emitter was completed, by its drain thread or by the container
+        final AtomicBoolean finished = new AtomicBoolean();
+        // System.nanoTime() when the send in progress started, 0 when not sending
+        volatile long sendingSince;
+        volatile Thread sender;
+
+        Subscriber(Long walletId, SseEmitter emitter, int queueSize) {
+            this.walletId = walletId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+        }
+    }
+
+    private final WalletRepository wallets;
+    private final int maxSubscribers;
+    private final int maxPerWallet;
+    private final int queueSize;
+    private final long timeoutMillis;
+    private final Duration sendTimeout;
+    private final ConcurrentHashMap<Long, Set<Subscriber>> byWallet = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final ExecutorService senders;
+    private final Counter dropped;
+
+    public TransactionEventHub(WalletRepository wallets,
+                               MeterRegistry meters,
+                               @Value("${wallet.events.max-subscribers:10000}") int maxSubscribers,
+                               @Value("${wallet.events.max-subscribers-per-wallet:20}") int maxPerWallet,
+                               @Value("${wallet.events.queue-size:100}") int queueSize,
+                               @Value("${wallet.events.timeout:30m}") Duration timeout,
+                               @Value("${wallet.events.send-timeout:10s}") Duration sendTimeout) {
+        this.wallets = wallets;
+        this.maxSubscribers = maxSubscribers;
+        this.maxPerWallet = maxPerWallet;
+        this.queueSize = queueSize;
+        this.timeoutMillis = timeout.toMillis();
+        this.sendTimeout = sendTimeout;
+        // at most one drain thread per subscriber at a time; a blocked write parks only that thread
+        this.senders = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("tx-events-send-", 1).factory());
+        this.dropped = Counter.builder("wallet.events.dropped")
+                .description("Event subscribers disconnected for falling behind or stalling")
+                .register(meters);
+        Gauge.builder("wallet.events.subscribers", subscribers, AtomicInteger::get)
+                .description("Open transaction event streams")
+                .register(meters);
+    }
+
+    public SseEmitter subscribe(Long walletId) {
+        if (!wallets.existsById(walletId)) throw new EntityNotFoundException("Wallet not found");
+        if (subscribers.incrementAndGet() > maxSubscribers) {
+            subscribers.decrementAndGet();
+            throw new RejectedExecutionException("Too many event subscribers");
+        }
+
+        SseEmitter emitter = newEmitter(timeoutMillis);
+        Subscriber sub = new Subscriber(walletId, emitter, queueSize);
+        boolean[] added = new boolean[1];
+        byWallet.compute(walletId, (id, subs) -> {
+            if (subs == null) subs = ConcurrentHashMap.newKeySet();
+            if (subs.size() < maxPerWallet) added[0] = subs.add(sub);
+            return subs.isEmpty() ? null : subs;
+        });
+        if (!added[0]) {
+            subscribers.decrementAndGet();
+            throw new RejectedExecutionException("Too many event subscribers for wallet " + walletId);
+        }
+
+        emitter.onCompletion(() -> ended(sub));
+        emitter.onTimeout(() -> ended(sub));
+        emitter.onError(e -> ended(sub));
+        return emitter;
+    }
+
+    /** Publishes once the surrounding transaction commits, or right away if there is none. */
+    public void publishAfterCommit(TransactionResponse tx) {
+        publishAfterCommit(List.of(tx));
+    }
+
+    public void publishAfterCommit(Collection<TransactionResponse> txs) {
+        if (txs.isEmpty() || byWallet.isEmpty()) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            txs.forEach(this::publish);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                txs.forEach(TransactionEventHub.this::publish);
+            }
+        });
+    }
+
+    private void publish(TransactionResponse tx) {
+        Set<Subscriber> subs = byWallet.get(tx.walletId());
+        if (subs == null) return;
+        for (Subscriber sub : subs) {
+            if (sub.queue.offer(tx)) {
+                schedule(sub);
+            } else {
+                dropped.increment();
+                disconnect(sub, DONE);
+            }
+        }
+    }
+
+    // keeps idle streams open through proxies and finds clients that went away or stopped reading
+    @Scheduled(fixedDelayString = "${wallet.events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        for (Set<Subscriber> subs : byWallet.values()) {
+            for (Subscriber sub : subs) {
+                long since = sub.sendingSince;
+                if (since != 0 && now - since > sendTimeout.toNanos()) {
+                    if (sub.closed.get() == null) {
+                        dropped.increment();
+                        disconnect(sub, new IOException("Event stream write stalled for more than " + sendTimeout));
+                    }
+                } else if (sub.queue.offer(PING)) {
+                    // a full queue has events to send already
+                    schedule(sub);
+                }
+            }
+        }
+    }
+
+    // overridden by tests to observe or stall a stream
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void schedule(Subscriber sub) {
+        if (sub.draining.compareAndSet(false, true)) senders.execute(() -> drain(sub));
+    }
+
+    private void drain(Subscriber sub) {
+        sub.sender = Thread.currentThread();
+        try {
+            Object next;
+            while (sub.closed.get() == null && (next = sub.queue.poll()) != null) {
+                sub.sendingSince = System.nanoTime();
+                if (next == PING) {
+                    sub.emitter.send(SseEmitter.event().comment("ping"));
+                } else {
+                    TransactionResponse tx = (TransactionResponse) next;
+                    sub.emitter.send(SseEmitter.event()
+                            .id(String.valueOf(tx.id()))
+                            .name("transaction")
+                            .data(tx, MediaType.APPLICATION_JSON));
+                }
+                sub.sendingSince = 0;
+            }
+        } catch (IOException | IllegalStateException e) {
+            // client went away, the emitter already completed, or a disconnect interrupted the send
+            close(sub, e);
+        } finally {
+            sub.sendingSince = 0;
+            sub.sender = null;
+            if (sub.closed.get() != null) finish(sub);
+            sub.draining.set(false);
+        }
+        // an offer or a disconnect that lost the race with the flag reset is still handled
+        if (sub.closed.get() == null ? !sub.queue.isEmpty() : !sub.finished.get()) schedule(sub);
+    }
+
+    // runs on the subscriber's drain thread only, never on a publishing or heartbeat thread
+    private void finish(Subscriber sub) {
+        if (!sub.finished.compareAndSet(false, true)) return;
+        Thread.interrupted();    // the disconnect's interrupt, if any, has done its job
+        Throwable reason = sub.closed.get();
+        if (reason == DONE) {
+            sub.emitter.complete();
+        } else {
+            sub.emitter.completeWithError(reason);
+        }
+    }
+
+    // closes the stream from outside its drain: unblock the sender first, then let a drain complete the emitter
+    private void disconnect(Subscriber sub, Throwable reason) {
+        if (!close(sub, reason)) return;
+        Thread sender = sub.sender;
+        if (sender != null) sender.interrupt();
+        schedule(sub);
+    }
+
+    // the container completed, timed out or failed the emitter: nothing is left to complete
+    private void ended(Subscriber sub) {
+        sub.finished.set(true);
+        close(sub, DONE);
+    }
+
+    private boolean close(Subscriber sub, Throwable reason) {
+        if (!sub.closed.compareAndSet(null, reason)) return false;
+        subscribers.decrementAndGet();
+        byWallet.computeIfPresent(sub.walletId, (id, subs) -> {
+            subs.remove(sub);
+            return subs.isEmpty() ? null : subs;
+        });
+        sub.queue.clear();
+        return true;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        byWallet.values().forEach(subs -> subs.forEach(sub -> disconnect(sub, DONE)));
+        senders.shutdown();
+        try {
+            senders.awaitTermination(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        senders.shutdownNow();
+    }
+}
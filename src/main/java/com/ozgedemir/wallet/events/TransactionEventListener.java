@@ -0,0 +1,44 @@
+package com.ozgedemir.wallet.events;
+
+import com.ozgedemir.wallet.domain.entities.Transaction;
+import com.ozgedemir.wallet.dto.tx.TransactionResponse;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes a transaction to {@link TransactionEventHub} after it is created or its status
+ * changes through JPA. Bulk/native UPDATEs bypass this and must publish themselves.
+ */
+@Component
+public class TransactionEventListener {
+
+    private final TransactionEventHub hub;
+
+    public TransactionEventListener(TransactionEventHub hub) {
+        this.hub = hub;
+    }
+
+    @PostLoad
+    void loaded(Transaction t) {
+        t.setPublishedStatus(t.getStatus());
+    }
+
+    @PostPersist
+    void created(Transaction t) {
+        publish(t);
+    }
+
+    // other updates (claims, links) are not events
+    @PostUpdate
+    void updated(Transaction t) {
+        if (t.getStatus() != t.getPublishedStatus()) publish(t);
+    }
+
+    private void publish(Transaction t) {
+        t.setPublishedStatus(t.getStatus());
+        hub.publishAfterCommit(new TransactionResponse(t.getId(), t.getWallet().getId(), t.getAmount(), t.getType(),
+                t.getOppositePartyType(), t.getOppositeParty(), t.getStatus(), t.getCreatedAt()));
+    }
+}
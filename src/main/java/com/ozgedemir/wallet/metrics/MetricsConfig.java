@@ -0,0 +1,57 @@
+package com.ozgedemir.wallet.metrics;
+
+import com.ozgedemir.wallet.cache.WalletReadCache;
+import com.ozgedemir.wallet.concurrency.OptimisticRetry;
+import com.ozgedemir.wallet.concurrency.WalletLockRegistry;
+import com.ozgedemir.wallet.security.CredentialHashingExecutor;
+import com.ozgedemir.wallet.security.VerifiedTokenCache;
+import com.ozgedemir.wallet.service.IdempotencyService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Binds the app's own counters, caches and pools to the meter registry.
+ * Hikari pool metrics (hikaricp.connections.*) are bound by Boot itself.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    MeterBinder concurrencyMetrics(WalletLockRegistry locks, OptimisticRetry retry) {
+        return registry -> {
+            FunctionCounter.builder("wallet.optimistic_lock.conflicts", retry, OptimisticRetry::retries)
+                    .description("Optimistic-lock failures")
+                    .tag("result", "retried")
+                    .register(registry);
+            FunctionCounter.builder("wallet.optimistic_lock.conflicts", retry, OptimisticRetry::exhaustedRetries)
+                    .description("Optimistic-lock failures")
+                    .tag("result", "exhausted")
+                    .register(registry);
+            FunctionCounter.builder("wallet.lock.contended", locks, WalletLockRegistry::contendedAcquisitions)
+                    .description("Wallet lock acquisitions that had to wait")
+                    .register(registry);
+            FunctionCounter.builder("wallet.lock.timeouts", locks, WalletLockRegistry::lockTimeouts)
+                    .description("Wallet lock acquisitions that gave up")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    MeterBinder cacheMetrics(IdempotencyService idempotency, VerifiedTokenCache tokens, WalletReadCache walletCache) {
+        return registry -> {
+            CaffeineCacheMetrics.monitor(registry, walletCache.cache(), "wallets");
+            CaffeineCacheMetrics.monitor(registry, idempotency.cache(), "idempotency");
+            CaffeineCacheMetrics.monitor(registry, tokens.cache(), "jwt");
+        };
+    }
+
+    @Bean
+    MeterBinder credentialHashingMetrics(CredentialHashingExecutor hashing) {
+        return new ExecutorServiceMetrics(hashing.executor(), "credential_hashing", Tags.empty());
+    }
+}
@@ -0,0 +1,67 @@
+package com.ozgedemir.wallet.metrics;
+
+import com.ozgedemir.wallet.dto.tx.TransactionResponse;
+import com.ozgedemir.wallet.service.DepositOutcomeUnknownException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityNotFoundException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every wallet/transaction controller operation as {@code wallet.operation},
+ * tagged with the method name and its outcome: the resulting transaction status
+ * (APPROVED, PENDING, DENIED), or conflict / invalid / not_found / error.
+ */
+@Aspect
+@Component
+public class OperationMetricsAspect {
+
+    static final String TIMER = "wallet.operation";
+
+    private final MeterRegistry meters;
+
+    public OperationMetricsAspect(MeterRegistry meters) {
+        this.meters = meters;
+    }
+
+    @Around("execution(public * com.ozgedemir.wallet.controller.TransactionController.*(..)) || " +
+            "execution(public * com.ozgedemir.wallet.controller.WalletController.*(..))")
+    public Object time(ProceedingJoinPoint pjp) throws Throwable {
+        Timer.Sample sample = Timer.start(meters);
+        String outcome = "error";
+        try {
+            Object result = pjp.proceed();
+            outcome = outcome(result);
+            return result;
+        } catch (Throwable e) {
+            outcome = outcome(e);
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(TIMER)
+                    .description("Wallet API operations")
+                    .tag("operation", pjp.getSignature().getName())
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meters));
+        }
+    }
+
+    static String outcome(Object result) {
+        Object body = result instanceof ResponseEntity<?> re ? re.getBody() : result;
+        return body instanceof TransactionResponse tx ? tx.status().name() : "success";
+    }
+
+    // mirrors the status codes GlobalExceptionHandler picks
+    static String outcome(Throwable e) {
+        if (e instanceof OptimisticLockingFailureException || e instanceof IllegalStateException) return "conflict";
+        if (e instanceof IllegalArgumentException) return "invalid";
+        if (e instanceof EntityNotFoundException) return "not_found";
+        if (e instanceof DepositOutcomeUnknownException) return "timeout";
+        return "error";
+    }
+}
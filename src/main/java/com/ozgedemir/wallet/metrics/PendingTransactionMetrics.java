@@ -0,0 +1,62 @@
+package com.ozgedemir.wallet.metrics;
+
+import com.ozgedemir.wallet.domain.enums.TransactionStatus;
+import com.ozgedemir.wallet.domain.enums.TransactionType;
+import com.ozgedemir.wallet.domain.repos.TransactionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Gauges for PENDING transactions: how many there are and how much they hold back,
+ * per type. Pending withdrawals are reserved out of usable balance; pending deposits
+ * are in balance but not usable yet. Values come from one grouped query that runs
+ * on a schedule, so a scrape never touches the database.
+ */
+@Component
+public class PendingTransactionMetrics implements MeterBinder {
+
+    record Totals(long count, BigDecimal amount) {}
+
+    private static final Totals NONE = new Totals(0, BigDecimal.ZERO);
+
+    private final TransactionRepository txs;
+    private volatile Map<TransactionType, Totals> totals = Map.of();
+
+    public PendingTransactionMetrics(TransactionRepository txs) {
+        this.txs = txs;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (TransactionType type : TransactionType.values()) {
+            Gauge.builder("wallet.transactions.pending", this, m -> m.totals(type).count())
+                    .description("Transactions waiting for approval")
+                    .tag("type", type.name())
+                    .register(registry);
+            Gauge.builder("wallet.transactions.pending.amount", this, m -> m.totals(type).amount().doubleValue())
+                    .description("Amount held by transactions waiting for approval")
+                    .tag("type", type.name())
+                    .register(registry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.metrics.pending-refresh-ms:15000}")
+    public void refresh() {
+        Map<TransactionType, Totals> next = new EnumMap<>(TransactionType.class);
+        for (Object[] row : txs.totalsByType(TransactionStatus.PENDING)) {
+            next.put((TransactionType) row[0], new Totals((Long) row[1], (BigDecimal) row[2]));
+        }
+        totals = next;
+    }
+
+    Totals totals(TransactionType type) {
+        return totals.getOrDefault(type, NONE);
+    }
+}
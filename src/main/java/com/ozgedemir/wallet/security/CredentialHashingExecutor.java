@@ -0,0 +1,45 @@
+package com.ozgedemir.wallet.security;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Small bounded pool for CPU-heavy credential work (bcrypt).
+ * Keeps login bursts off the request threads; when the queue is full the
+ * submission is rejected right away (mapped to 503) instead of piling up.
+ * Deliberately not exposed as an Executor bean, so it doesn't replace Boot's task executor.
+ */
+@Component
+public class CredentialHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+
+    public CredentialHashingExecutor(@Value("${wallet.security.hashing.threads:4}") int threads,
+                                     @Value("${wallet.security.hashing.queue-capacity:64}") int queueCapacity) {
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "credential-hash-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /** @throws RejectedExecutionException if the pool and its queue are full */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    public ThreadPoolExecutor executor() { return executor; }
+
+    @PreDestroy
+    void shutdown() { executor.shutdown(); }
+}
@@ -1,40 +1,33 @@
 package com.ozgedemir.wallet.security;
 
-import io.jsonwebtoken.Claims;
 import jakarta.servlet.*;
 import jakarta.servlet.http.*;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
-import java.util.*;
 
 @Component
-public abstract class JwtAuthFilter extends GenericFilter {
-    private final JwtUtil jwtUtil;
-    public JwtAuthFilter(JwtUtil jwtUtil) { this.jwtUtil = jwtUtil; }
+public class JwtAuthFilter extends OncePerRequestFilter {
+    private final VerifiedTokenCache tokens;
+    public JwtAuthFilter(VerifiedTokenCache tokens) { this.tokens = tokens; }
 
     @Override
-    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
-        HttpServletRequest req = (HttpServletRequest) request;
+    protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+            throws ServletException, IOException {
         String header = req.getHeader(HttpHeaders.AUTHORIZATION);
         if (header != null && header.startsWith("Bearer ")) {
             String token = header.substring(7);
             try {
-                Claims c = jwtUtil.parse(token).getBody();
-                String username = c.getSubject();
-                String role = c.get("role", String.class);
-                var auth = new UsernamePasswordAuthenticationToken(username, null, List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+                VerifiedTokenCache.VerifiedToken t = tokens.verify(token);
+                var auth = new UsernamePasswordAuthenticationToken(t.username(), null, t.authorities());
                 SecurityContextHolder.getContext().setAuthentication(auth);
             } catch (Exception ignore) {
                 // unauthenticated
             }
         }
-        chain.doFilter(request, response);
+        chain.doFilter(req, res);
     }
-
-    protected abstract void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
-            throws IOException, ServletException;
 }
@@ -12,6 +12,7 @@ import java.util.Date;
 @Component
 public class JwtUtil {
     private final Key key;
+    private final JwtParser parser;
     private final String issuer;
     private final long expirationMinutes;
 
@@ -19,6 +20,8 @@ public class JwtUtil {
                    @Value("${jwt.issuer}") String issuer,
                    @Value("${jwt.expiration-minutes}") long expirationMinutes) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
+        // immutable and thread-safe, no need to rebuild it per request
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
         this.issuer = issuer;
         this.expirationMinutes = expirationMinutes;
     }
@@ -35,5 +38,5 @@ public class JwtUtil {
                 .compact();
     }
 
-    public Jws<Claims> parse(String token) { return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token); }
+    public Jws<Claims> parse(String token) { return parser.parseClaimsJws(token); }
 }
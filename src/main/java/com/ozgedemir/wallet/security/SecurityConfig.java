@@ -1,6 +1,9 @@
 package com.ozgedemir.wallet.security;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.*;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -16,8 +19,11 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @EnableMethodSecurity
 public class SecurityConfig {
 
+    // Raising the strength is safe: older hashes still verify and are upgraded on the next login
     @Bean
-    PasswordEncoder passwordEncoder() { return new BCryptPasswordEncoder(); }
+    PasswordEncoder passwordEncoder(@Value("${wallet.security.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
+    }
 
     @Bean
     SecurityFilterChain filterChain(HttpSecurity http, JwtAuthFilter jwt) throws Exception {
@@ -30,13 +36,18 @@ public class SecurityConfig {
                 .httpBasic(basic -> basic.disable())
                 .logout(l -> l.disable())
                 .authorizeHttpRequests(auth -> auth
+                        // the request that opened an event stream was authorized; its async re-dispatch has no JWT context
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(
                                 "/auth/**",
                                 "/swagger-ui.html",
                                 "/swagger-ui/**",
                                 "/v3/api-docs/**",
-                                "/h2/**"
+                                "/h2/**",
+                                "/actuator/health/**"
                         ).permitAll()
+                        // pending totals and internals: staff and scrapers only
+                        .requestMatchers("/actuator/prometheus", "/actuator/metrics/**").hasAnyRole("EMPLOYEE", "METRICS")
                         .anyRequest().authenticated()
                 )
                 .headers(h -> h.frameOptions(f -> f.disable()));
@@ -45,6 +56,14 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // JwtAuthFilter is a @Component; keep Boot from also registering it as a plain servlet filter
+    @Bean
+    FilterRegistrationBean<JwtAuthFilter> jwtAuthFilterRegistration(JwtAuthFilter jwt) {
+        FilterRegistrationBean<JwtAuthFilter> reg = new FilterRegistrationBean<>(jwt);
+        reg.setEnabled(false);
+        return reg;
+    }
+
     @Bean
     AuthenticationManager authenticationManager(AuthenticationConfiguration cfg) throws Exception {
         return cfg.getAuthenticationManager();
@@ -0,0 +1,85 @@
+package com.ozgedemir.wallet.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Bounded cache of already-verified bearer tokens, keyed by the token's SHA-256 digest
+ * (raw tokens are never kept). An entry never outlives the token's own expiry, so a
+ * hit is as good as a full signature check and claims parse.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    public record VerifiedToken(String username, List<GrantedAuthority> authorities, Instant expiresAt) {}
+
+    private final JwtUtil jwtUtil;
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(JwtUtil jwtUtil,
+                              @Value("${jwt.cache.max-size:10000}") long maxSize,
+                              @Value("${jwt.cache.max-ttl:5m}") Duration maxTtl) {
+        this.jwtUtil = jwtUtil;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        long untilExpiry = Duration.between(Instant.now(), value.expiresAt()).toNanos();
+                        return Math.max(0, Math.min(untilExpiry, maxTtl.toNanos()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /** Returns the token's principal, verifying it only on a cache miss. Throws JwtException if invalid. */
+    public VerifiedToken verify(String token) {
+        String digest = digest(token);
+        VerifiedToken hit = cache.getIfPresent(digest);
+        if (hit != null && hit.expiresAt().isAfter(Instant.now())) return hit;
+
+        Claims c = jwtUtil.parse(token).getBody();
+        VerifiedToken verified = new VerifiedToken(
+                c.getSubject(),
+                List.of(new SimpleGrantedAuthority("ROLE_" + c.get("role", String.class))),
+                c.getExpiration().toInstant());
+        cache.put(digest, verified);
+        return verified;
+    }
+
+    public Cache<String, VerifiedToken> cache() { return cache; }
+
+    private static String digest(String token) {
+        try {
+            byte[] d = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(d);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
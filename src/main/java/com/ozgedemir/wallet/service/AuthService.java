@@ -2,24 +2,34 @@ package com.ozgedemir.wallet.service;
 
 import com.ozgedemir.wallet.domain.entities.Customer;
 import com.ozgedemir.wallet.domain.repos.CustomerRepository;
+import com.ozgedemir.wallet.security.CredentialHashingExecutor;
 import com.ozgedemir.wallet.security.JwtUtil;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class AuthService {
     private final CustomerRepository customers;
     private final PasswordEncoder encoder;
     private final JwtUtil jwt;
-    public AuthService(CustomerRepository customers, PasswordEncoder encoder, JwtUtil jwt) {
-        this.customers = customers; this.encoder = encoder; this.jwt = jwt;
+    private final CredentialHashingExecutor hashing;
+    public AuthService(CustomerRepository customers, PasswordEncoder encoder, JwtUtil jwt, CredentialHashingExecutor hashing) {
+        this.customers = customers; this.encoder = encoder; this.jwt = jwt; this.hashing = hashing;
     }
 
-    public String login(String username, String password) {
+    // Password check runs on the bounded hashing pool, not on the request thread.
+    public CompletableFuture<String> login(String username, String password) {
         Customer c = customers.findByUsername(username)
                 .orElseThrow(() -> new IllegalArgumentException("Invalid credentials"));
-        if (!encoder.matches(password, c.getPasswordHash())) throw new IllegalArgumentException("Invalid credentials");
-        return jwt.generateToken(c.getUsername(), c.getRole());
+        return hashing.submit(() -> {
+            if (!encoder.matches(password, c.getPasswordHash())) throw new IllegalArgumentException("Invalid credentials");
+            if (encoder.upgradeEncoding(c.getPasswordHash())) {
+                // stored hash is weaker than the configured strength; upgrade it while we have the raw password
+                customers.updatePasswordHash(c.getId(), encoder.encode(password));
+            }
+            return jwt.generateToken(c.getUsername(), c.getRole());
+        });
     }
 }
-
@@ -0,0 +1,234 @@
+package com.ozgedemir.wallet.service;
+
+import com.ozgedemir.wallet.domain.repos.ArchivedTransactionRepository;
+import com.ozgedemir.wallet.domain.repos.TransactionRepository;
+import com.ozgedemir.wallet.domain.repos.WalletRepository;
+import com.ozgedemir.wallet.dto.tx.TransactionResponse;
+import com.ozgedemir.wallet.dto.wallet.BalanceMismatch;
+import com.ozgedemir.wallet.dto.wallet.ReconciliationReport;
+import com.ozgedemir.wallet.dto.wallet.WalletResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Checks every wallet's balances against its transaction history (hot table and archive),
+ * using the same rules as {@link TransactionService}:
+ * <ul>
+ *   <li>balance: + DEPOSIT (PENDING, APPROVED), - WITHDRAW (APPROVED)</li>
+ *   <li>usableBalance: + DEPOSIT (APPROVED), - WITHDRAW (PENDING, APPROVED)</li>
+ * </ul>
+ * The wallet id space is split into ranges that run in parallel on a dedicated fork-join pool.
+ * A range reads its wallets and transactions as three cursors sorted by wallet id and walks
+ * them side by side, so memory doesn't depend on range size. Each range is one read-only
+ * REPEATABLE READ transaction, so concurrent writes and archiving can't cause false mismatches.
+ * The shared {@link RowThrottle} and the pool size bound the load on the database.
+ */
+@Service
+public class BalanceReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceReconciliationService.class);
+
+    private static final Comparator<TransactionResponse> BY_WALLET =
+            Comparator.comparing(TransactionResponse::walletId).thenComparing(HistoryMerge.OLDEST_FIRST);
+
+    private final WalletRepository wallets;
+    private final TransactionRepository txs;
+    private final ArchivedTransactionRepository archive;
+    private final TransactionTemplate snapshot;
+    private final int parallelism;
+    private final long rangeSize;
+    private final int maxReported;
+    private final int maxRowsPerSecond;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicReference<ReconciliationReport> latest = new AtomicReference<>();
+
+    public BalanceReconciliationService(WalletRepository wallets,
+                                        TransactionRepository txs,
+                                        ArchivedTransactionRepository archive,
+                                        PlatformTransactionManager txManager,
+                                        MeterRegistry meters,
+                                        @Value("${wallet.reconciliation.parallelism:4}") int parallelism,
+                                        @Value("${wallet.reconciliation.range-size:500}") long rangeSize,
+                                        @Value("${wallet.reconciliation.max-reported:1000}") int maxReported,
+                                        @Value("${wallet.reconciliation.max-rows-per-second:200000}") int maxRowsPerSecond) {
+        this.wallets = wallets;
+        this.txs = txs;
+        this.archive = archive;
+        this.snapshot = new TransactionTemplate(txManager);
+        this.snapshot.setReadOnly(true);
+        this.snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.parallelism = parallelism;
+        this.rangeSize = rangeSize;
+        this.maxReported = maxReported;
+        this.maxRowsPerSecond = maxRowsPerSecond;
+
+        Gauge.builder("wallet.reconciliation.mismatches", latest, r -> r.get() == null ? Double.NaN : r.get().mismatchCount())
+                .description("Wallets whose balances didn't match their history in the last reconciliation")
+                .register(meters);
+    }
+
+    // Hands the run to its own thread: Spring's scheduler has one thread, shared with the compactor,
+    // archiver, sweeps and heartbeats, and a run can take hours
+    @Scheduled(cron = "${wallet.reconciliation.cron:-}")
+    public void nightly() {
+        if (!launch()) log.info("Nightly reconciliation skipped, a run is already in progress");
+    }
+
+    /** Starts a run in the background; 409 if one is already running. */
+    public void start() {
+        if (!launch()) {
+            throw new IllegalStateException("Reconciliation is already running");
+        }
+    }
+
+    private boolean launch() {
+        if (!running.compareAndSet(false, true)) return false;
+        try {
+            Thread.ofPlatform().name("wallet-reconciliation").start(() -> {
+                try {
+                    reconcileAll();
+                } catch (RuntimeException e) {
+                    log.error("Reconciliation failed", e);
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RuntimeException | Error e) {
+            running.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    public Optional<ReconciliationReport> latest() {
+        return Optional.ofNullable(latest.get());
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    ReconciliationReport reconcileAll() {
+        Instant startedAt = Instant.now();
+        long maxId = wallets.maxId();
+        RowThrottle throttle = new RowThrottle(maxRowsPerSecond);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        Partial total;
+        try {
+            total = maxId < 1 ? new Partial() : pool.invoke(new RangeTask(1, maxId, throttle));
+        } finally {
+            pool.shutdown();
+        }
+
+        ReconciliationReport report = new ReconciliationReport(startedAt, Instant.now(), total.wallets,
+                total.rows, total.mismatchCount, List.copyOf(total.mismatches));
+        latest.set(report);
+        log.info("Reconciled {} wallets, {} transactions: {} mismatches",
+                report.walletsChecked(), report.transactionsScanned(), report.mismatchCount());
+        return report;
+    }
+
+    private final class RangeTask extends RecursiveTask<Partial> {
+        private final long fromId, toId;
+        private final RowThrottle throttle;
+
+        RangeTask(long fromId, long toId, RowThrottle throttle) {
+            this.fromId = fromId; this.toId = toId; this.throttle = throttle;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (toId - fromId < rangeSize) return reconcile(fromId, toId, throttle);
+            long mid = fromId + (toId - fromId) / 2;
+            RangeTask left = new RangeTask(fromId, mid, throttle);
+            left.fork();
+            Partial right = new RangeTask(mid + 1, toId, throttle).compute();
+            return left.join().merge(right, maxReported);
+        }
+    }
+
+    private Partial reconcile(long fromId, long toId, RowThrottle throttle) {
+        return snapshot.execute(s -> {
+            Partial p = new Partial();
+            try (Stream<WalletResponse> ws = wallets.streamByIdBetween(fromId, toId);
+                 Stream<TransactionResponse> hot = txs.streamByWalletIdBetween(fromId, toId);
+                 Stream<TransactionResponse> archived = archive.streamByWalletIdBetween(fromId, toId)) {
+                Iterator<TransactionResponse> rows = HistoryMerge.merge(hot.iterator(), archived.iterator(), BY_WALLET);
+                TransactionResponse next = rows.hasNext() ? rows.next() : null;
+
+                for (Iterator<WalletResponse> it = ws.iterator(); it.hasNext(); ) {
+                    WalletResponse w = it.next();
+                    BigDecimal balance = BigDecimal.ZERO, usable = BigDecimal.ZERO;
+                    while (next != null && next.walletId() <= w.id()) {
+                        if (next.walletId().equals(w.id())) {
+                            BigDecimal a = next.amount();
+                            switch (next.type()) {
+                                case DEPOSIT -> {
+                                    switch (next.status()) {
+                                        case PENDING -> balance = balance.add(a);
+                                        case APPROVED -> { balance = balance.add(a); usable = usable.add(a); }
+                                        case DENIED -> { }
+                                    }
+                                }
+                                case WITHDRAW -> {
+                                    switch (next.status()) {
+                                        case PENDING -> usable = usable.subtract(a);
+                                        case APPROVED -> { balance = balance.subtract(a); usable = usable.subtract(a); }
+                                        case DENIED -> { }
+                                    }
+                                }
+                            }
+                        }
+                        if (++p.rows % RowThrottle.BATCH == 0) throttle.acquire();
+                        next = rows.hasNext() ? rows.next() : null;
+                    }
+                    p.wallets++;
+                    if (balance.compareTo(w.balance()) != 0 || usable.compareTo(w.usableBalance()) != 0) {
+                        p.add(new BalanceMismatch(w.id(), balance, w.balance(), usable, w.usableBalance()), maxReported);
+                    }
+                }
+            }
+            return p;
+        });
+    }
+
+    private static final class Partial {
+        long wallets, rows, mismatchCount;
+        final List<BalanceMismatch> mismatches = new ArrayList<>();
+
+        void add(BalanceMismatch m, int maxReported) {
+            mismatchCount++;
+            if (mismatches.size() < maxReported) mismatches.add(m);
+        }
+
+        Partial merge(Partial other, int maxReported) {
+            wallets += other.wallets;
+            rows += other.rows;
+            mismatchCount += other.mismatchCount;
+            for (BalanceMismatch m : other.mismatches) {
+                if (mismatches.size() >= maxReported) break;
+                mismatches.add(m);
+            }
+            return this;
+        }
+    }
+}
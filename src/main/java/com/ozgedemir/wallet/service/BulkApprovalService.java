@@ -0,0 +1,171 @@
+package com.ozgedemir.wallet.service;
+
+import com.ozgedemir.wallet.cache.WalletReadCache;
+import com.ozgedemir.wallet.concurrency.OptimisticRetry;
+import com.ozgedemir.wallet.concurrency.WalletLockRegistry;
+import com.ozgedemir.wallet.domain.enums.TransactionStatus;
+import com.ozgedemir.wallet.domain.enums.TransactionType;
+import com.ozgedemir.wallet.domain.repos.TransactionRepository;
+import com.ozgedemir.wallet.domain.repos.WalletRepository;
+import com.ozgedemir.wallet.dto.tx.TransactionResponse;
+import com.ozgedemir.wallet.events.TransactionEventHub;
+import com.ozgedemir.wallet.dto.tx.BulkApproveRequest;
+import com.ozgedemir.wallet.dto.tx.BulkApproveResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Approves or denies many PENDING transactions with set-based UPDATEs.
+ * Each chunk takes the locks of the wallets it touches, adjusts all of their balances
+ * with one statement and flips the statuses with another, in one DB transaction.
+ * Accounting is the same as {@link TransactionService#approve}:
+ * <ul>
+ *   <li>APPROVED: DEPOSIT adds to usableBalance, WITHDRAW subtracts from balance</li>
+ *   <li>DENIED: DEPOSIT subtracts from balance, WITHDRAW adds back to usableBalance</li>
+ * </ul>
+ * Chunks commit independently; only rows still PENDING are touched, so a failed call can be repeated.
+ * A transfer leg pulls the other leg into its chunk, so both are finalized together.
+ * Rows leased to another worker through the claim queue are skipped, with their transfer partner.
+ * With {@code wallet.concurrency.in-process-locks=false} a chunk skips the in-process locks and
+ * locks the wallet rows in id order in its DB transaction instead.
+ */
+@Service
+public class BulkApprovalService {
+
+    private final TransactionRepository txs;
+    private final WalletRepository wallets;
+    private final TransactionTemplate txTemplate;
+    private final WalletLockRegistry locks;
+    private final OptimisticRetry retry;
+    private final WalletReadCache walletCache;
+    private final DailyTotalsService dailyTotals;
+    private final TransactionEventHub events;
+    private final int chunkSize;
+    private final boolean inProcessLocks;
+
+    public BulkApprovalService(TransactionRepository txs,
+                               WalletRepository wallets,
+                               TransactionTemplate txTemplate,
+                               WalletLockRegistry locks,
+                               OptimisticRetry retry,
+                               WalletReadCache walletCache,
+                               DailyTotalsService dailyTotals,
+                               TransactionEventHub events,
+                               @Value("${wallet.bulk-approval.chunk-size:1000}") int chunkSize,
+                               @Value("${wallet.concurrency.in-process-locks:true}") boolean inProcessLocks) {
+        this.txs = txs;
+        this.wallets = wallets;
+        this.txTemplate = txTemplate;
+        this.locks = locks;
+        this.retry = retry;
+        this.walletCache = walletCache;
+        this.dailyTotals = dailyTotals;
+        this.events = events;
+        this.chunkSize = chunkSize;
+        this.inProcessLocks = inProcessLocks;
+    }
+
+    public BulkApproveResponse apply(BulkApproveRequest req) {
+        if (req.status() == TransactionStatus.PENDING) {
+            throw new IllegalArgumentException("status must be APPROVED or DENIED");
+        }
+        boolean byIds = req.ids() != null && !req.ids().isEmpty();
+        boolean byFilter = req.walletId() != null || req.createdBefore() != null;
+        if (byIds == byFilter) {
+            throw new IllegalArgumentException("Give either ids, or walletId and/or createdBefore");
+        }
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String worker = auth != null ? auth.getName() : null;
+
+        int finalized = 0;
+        if (byIds) {
+            List<Long> ids = req.ids().stream().distinct().sorted().toList();
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                finalized += applyChunk(ids.subList(from, Math.min(from + chunkSize, ids.size())), req.status(), worker);
+            }
+        } else {
+            long afterId = 0;
+            List<Long> ids;
+            do {
+                ids = txs.findIdsByStatus(TransactionStatus.PENDING, req.walletId(), req.createdBefore(),
+                        afterId, Limit.of(chunkSize));
+                if (ids.isEmpty()) break;
+                finalized += applyChunk(ids, req.status(), worker);
+                afterId = ids.get(ids.size() - 1);
+            } while (ids.size() == chunkSize);
+        }
+        return new BulkApproveResponse(req.status(), finalized);
+    }
+
+    private int applyChunk(List<Long> chunk, TransactionStatus status, String worker) {
+        List<Long> requested = withRelated(chunk);
+        List<Long> walletIds = txs.findWalletIdsByIdInAndStatus(requested, TransactionStatus.PENDING);
+        if (walletIds.isEmpty()) return 0;
+
+        // APPROVED: withdrawals leave balance, deposits become usable. DENIED: the other way round.
+        TransactionType balanceType = status == TransactionStatus.APPROVED ? TransactionType.WITHDRAW : TransactionType.DEPOSIT;
+        TransactionType usableType = status == TransactionStatus.APPROVED ? TransactionType.DEPOSIT : TransactionType.WITHDRAW;
+
+        if (!inProcessLocks) {
+            return retry.run(() -> txTemplate.execute(s -> {
+                // row locks in a fixed order, so two chunks sharing wallets can't deadlock
+                walletIds.stream().sorted().forEach(wallets::lockRow);
+                return finalizeChunk(requested, walletIds, status, worker, balanceType, usableType);
+            }));
+        }
+        return retry.run(() -> locks.withLocks(walletIds, () -> txTemplate.execute(s ->
+                finalizeChunk(requested, walletIds, status, worker, balanceType, usableType))));
+    }
+
+    private int finalizeChunk(List<Long> requested, List<Long> walletIds, TransactionStatus status, String worker,
+                              TransactionType balanceType, TransactionType usableType) {
+        List<Long> ids = approvable(requested, worker);
+        if (ids.isEmpty()) return 0;
+        // rows are read under the wallet locks, so the PENDING ones are exactly those finalized below
+        List<TransactionResponse> pending = txs.findResponsesByIdIn(ids).stream()
+                .filter(t -> t.status() == TransactionStatus.PENDING)
+                .toList();
+        dailyTotals.recordFinalized(pending, status);
+        txs.applyPendingToWallets(ids, balanceType.name(), usableType.name());
+        int n = txs.finalizePending(ids, status, TransactionStatus.PENDING);
+        // native updates bypass the entity listeners
+        walletCache.evictAfterCommit(walletIds);
+        events.publishAfterCommit(pending.stream().map(t -> finalized(t, status)).toList());
+        return n;
+    }
+
+    // Same rule as a single approval: a live lease held by someone else blocks the row, and a transfer
+    // leg whose partner is blocked waits with it
+    private List<Long> approvable(List<Long> ids, String worker) {
+        Instant now = Instant.now();
+        List<Long> free = txs.lockApprovable(ids, worker, now);
+        List<Long> leased = txs.findLeasedToOthers(ids, TransactionStatus.PENDING, worker, now);
+        if (leased.isEmpty()) return free;
+
+        Set<Long> blocked = new HashSet<>(leased);
+        blocked.addAll(txs.findRelatedIds(leased, TransactionStatus.PENDING));
+        return free.stream().filter(id -> !blocked.contains(id)).toList();
+    }
+
+    private static TransactionResponse finalized(TransactionResponse t, TransactionStatus status) {
+        return new TransactionResponse(t.id(), t.walletId(), t.amount(), t.type(), t.oppositePartyType(),
+                t.oppositeParty(), status, t.createdAt());
+    }
+
+    private List<Long> withRelated(List<Long> ids) {
+        List<Long> related = txs.findRelatedIds(ids, TransactionStatus.PENDING);
+        if (related.isEmpty()) return ids;
+        return Stream.concat(ids.stream(), related.stream()).distinct().sorted().toList();
+    }
+}
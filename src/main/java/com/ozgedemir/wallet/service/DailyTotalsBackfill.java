@@ -0,0 +1,103 @@
+package com.ozgedemir.wallet.service;
+
+import com.ozgedemir.wallet.domain.repos.WalletDailyTotalRepository;
+import com.ozgedemir.wallet.domain.repos.WalletRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * One-time rebuild of wallet_daily_totals from the transaction history (hot table and archive).
+ * Enabled with {@code wallet.rollups.backfill.enabled=true}; runs once at startup, in a lifecycle
+ * phase ahead of the web server's, so the port only opens after the rebuild and scheduled jobs
+ * only start after it. A failed rebuild fails startup.
+ * Wallet ids are split into ranges that are rebuilt in parallel, each range with one
+ * delete and one INSERT ... SELECT in its own DB transaction. It takes no wallet locks,
+ * so other instances must not be writing, e.g. start a single instance with it.
+ */
+@Component
+@ConditionalOnProperty(name = "wallet.rollups.backfill.enabled", havingValue = "true")
+public class DailyTotalsBackfill implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(DailyTotalsBackfill.class);
+    // the web server starts close to DEFAULT_PHASE
+    private static final int PHASE = 0;
+
+    private final WalletDailyTotalRepository totals;
+    private final WalletRepository wallets;
+    private final TransactionTemplate txTemplate;
+    private final int walletsPerChunk;
+    private final int threads;
+    private volatile boolean running;
+
+    public DailyTotalsBackfill(WalletDailyTotalRepository totals,
+                               WalletRepository wallets,
+                               TransactionTemplate txTemplate,
+                               @Value("${wallet.rollups.backfill.wallets-per-chunk:1000}") int walletsPerChunk,
+                               @Value("${wallet.rollups.backfill.threads:4}") int threads) {
+        this.totals = totals;
+        this.wallets = wallets;
+        this.txTemplate = txTemplate;
+        this.walletsPerChunk = walletsPerChunk;
+        this.threads = threads;
+    }
+
+    @Override
+    public void start() {
+        rebuild();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    void rebuild() {
+        long maxId = wallets.maxId();
+        long started = System.nanoTime();
+        List<Future<Integer>> chunks = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(threads)) {
+            for (long from = 1; from <= maxId; from += walletsPerChunk) {
+                long fromId = from, toId = Math.min(from + walletsPerChunk - 1, maxId);
+                chunks.add(pool.submit(() -> txTemplate.execute(s -> {
+                    totals.deleteForWallets(fromId, toId);
+                    return totals.rebuildForWallets(fromId, toId);
+                })));
+            }
+            long rows = 0;
+            for (Future<Integer> chunk : chunks) {
+                try {
+                    rows += chunk.get();
+                } catch (ExecutionException e) {
+                    pool.shutdownNow();
+                    throw new IllegalStateException("Daily totals backfill failed", e.getCause());
+                } catch (InterruptedException e) {
+                    pool.shutdownNow();
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Daily totals backfill interrupted", e);
+                }
+            }
+            log.info("Rebuilt {} daily total rows for wallets 1..{} in {} chunks, {} ms",
+                    rows, maxId, chunks.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.ozgedemir.wallet.service;
+
+import com.ozgedemir.wallet.domain.entities.Transaction;
+import com.ozgedemir.wallet.domain.enums.TransactionStatus;
+import com.ozgedemir.wallet.domain.enums.TransactionType;
+import com.ozgedemir.wallet.domain.repos.WalletDailyTotalRepository;
+import com.ozgedemir.wallet.domain.repos.WalletRepository;
+import com.ozgedemir.wallet.dto.tx.TransactionResponse;
+import com.ozgedemir.wallet.dto.wallet.WalletTotalsResponse;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Per-wallet daily totals (count and amount by type and status, per UTC day of createdAt).
+ * Writers call the record methods inside their own DB transaction, so the rollup commits or
+ * rolls back with the transactions it counts. Each key is striped over {@code wallet.rollups.stripes}
+ * rows and a call increments one random stripe, so concurrent writers to the same wallet and day
+ * rarely wait on each other's row lock; reads sum the stripes. Changes are summed per key first
+ * and applied in key order, so a batch touching many wallets updates each row once and can't
+ * deadlock another.
+ * Archiving doesn't change a transaction's day, so the rollup covers hot and archived history.
+ */
+@Service
+public class DailyTotalsService {
+
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparing(Key::walletId)
+            .thenComparing(Key::date).thenComparing(Key::type).thenComparing(Key::status);
+
+    private final WalletDailyTotalRepository totals;
+    private final WalletRepository wallets;
+    private final int stripes;
+
+    private record Key(Long walletId, LocalDate date, TransactionType type, TransactionStatus status) {}
+
+    private static final class Delta {
+        long count;
+        BigDecimal amount = BigDecimal.ZERO;
+    }
+
+    public DailyTotalsService(WalletDailyTotalRepository totals,
+                              WalletRepository wallets,
+                              @Value("${wallet.rollups.stripes:8}") int stripes) {
+        if (stripes < 1) throw new IllegalArgumentException("wallet.rollups.stripes must be at least 1");
+        this.totals = totals;
+        this.wallets = wallets;
+        this.stripes = stripes;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(Collection<Transaction> created) {
+        Map<Key, Delta> deltas = new TreeMap<>(KEY_ORDER);
+        for (Transaction t : created) {
+            add(deltas, t.getWallet().getId(), t.getCreatedAt(), t.getType(), t.getStatus(), 1, t.getAmount());
+        }
+        apply(deltas);
+    }
+
+    /** Call before the status changes: moves tx from PENDING to its final status. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordFinalized(Transaction tx, TransactionStatus to) {
+        Map<Key, Delta> deltas = new TreeMap<>(KEY_ORDER);
+        move(deltas, tx.getWallet().getId(), tx.getCreatedAt(), tx.getType(), tx.getStatus(), to, tx.getAmount());
+        apply(deltas);
+    }
+
+    /** Set-based variant; rows no longer PENDING are ignored, as by the status update itself. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordFinalized(List<TransactionResponse> rows, TransactionStatus to) {
+        Map<Key, Delta> deltas = new TreeMap<>(KEY_ORDER);
+        for (TransactionResponse t : rows) {
+            if (t.status() != TransactionStatus.PENDING) continue;
+            move(deltas, t.walletId(), t.createdAt(), t.type(), t.status(), to, t.amount());
+        }
+        apply(deltas);
+    }
+
+    // Answered from the rollup alone: at most (days * 4) rows per wallet
+    @Transactional(readOnly = true)
+    public WalletTotalsResponse summary(Long walletId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) throw new IllegalArgumentException("from must not be after to");
+        if (!wallets.existsById(walletId)) throw new EntityNotFoundException("Wallet not found: " + walletId);
+        return new WalletTotalsResponse(walletId, from, to, totals.sumBetween(walletId, from, to));
+    }
+
+    static LocalDate day(Instant createdAt) {
+        return LocalDate.ofInstant(createdAt, ZoneOffset.UTC);
+    }
+
+    private static void move(Map<Key, Delta> deltas, Long walletId, Instant createdAt, TransactionType type,
+                             TransactionStatus from, TransactionStatus to, BigDecimal amount) {
+        add(deltas, walletId, createdAt, type, from, -1, amount.negate());
+        add(deltas, walletId, createdAt, type, to, 1, amount);
+    }
+
+    private static void add(Map<Key, Delta> deltas, Long walletId, Instant createdAt, TransactionType type,
+                            TransactionStatus status, long count, BigDecimal amount) {
+        Delta d = deltas.computeIfAbsent(new Key(walletId, day(createdAt), type, status), k -> new Delta());
+        d.count += count;
+        d.amount = d.amount.add(amount);
+    }
+
+    // One stripe for the whole call keeps the rows in key order, whatever stripe another writer picked
+    private void apply(Map<Key, Delta> deltas) {
+        if (deltas.isEmpty()) return;
+        int stripe = ThreadLocalRandom.current().nextInt(stripes);
+        deltas.forEach((k, d) -> {
+            String type = k.type().name(), status = k.status().name();
+            if (totals.add(k.walletId(), k.date(), type, status, stripe, d.count, d.amount) == 0) {
+                totals.create(k.walletId(), k.date(), type, status, stripe);
+                totals.add(k.walletId(), k.date(), type, status, stripe, d.count, d.amount);
+            }
+        });
+    }
+}
@@ -0,0 +1,182 @@
+package com.ozgedemir.wallet.service;
+
+import com.ozgedemir.wallet.dto.tx.DepositRequest;
+import com.ozgedemir.wallet.dto.tx.TransactionResponse;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Opt-in group commit for small deposits ({@code wallet.deposits.group-commit.enabled}).
+ * Deposits to the same wallet that arrive within {@code window-ms} of the first one are
+ * committed together by {@link TransactionService#depositAll}; every caller blocks until its
+ * group has committed and then gets its own transaction back. The number of deposits waiting
+ * or in flight is capped; past the cap new deposits are rejected (503) instead of queued.
+ * A caller never waits longer than {@code wait-timeout}, and every way a group can fail
+ * (rollback, error, shutdown) completes all of its callers.
+ * Deposits above the approval threshold, and everything when disabled, go straight through.
+ */
+@Service
+public class DepositCoalescer {
+
+    private record Waiter(DepositRequest request, CompletableFuture<TransactionResponse> result) {}
+
+    private static final class Group {
+        final Long walletId;
+        final List<Waiter> waiters = new ArrayList<>();   // only added to inside groups.compute
+        final AtomicBoolean flushed = new AtomicBoolean();
+
+        Group(Long walletId) { this.walletId = walletId; }
+    }
+
+    private final TransactionService txService;
+    private final boolean enabled;
+    private final long windowMicros;
+    private final int maxGroupSize;
+    private final Duration waitTimeout;
+    private final Semaphore capacity;
+    private final ConcurrentHashMap<Long, Group> open = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer;
+    private final ExecutorService committers;
+    private final DistributionSummary groupSizes;
+
+    public DepositCoalescer(TransactionService txService,
+                            MeterRegistry meters,
+                            @Value("${wallet.deposits.group-commit.enabled:false}") boolean enabled,
+                            @Value("${wallet.deposits.group-commit.window-ms:2}") double windowMillis,
+                            @Value("${wallet.deposits.group-commit.max-group-size:200}") int maxGroupSize,
+                            @Value("${wallet.deposits.group-commit.max-pending:10000}") int maxPending,
+                            @Value("${wallet.deposits.group-commit.threads:8}") int threads,
+                            @Value("${wallet.deposits.group-commit.wait-timeout:30s}") Duration waitTimeout) {
+        this.txService = txService;
+        this.enabled = enabled;
+        this.windowMicros = (long) (windowMillis * 1000);
+        this.maxGroupSize = maxGroupSize;
+        this.waitTimeout = waitTimeout;
+        this.capacity = new Semaphore(maxPending);
+        this.timer = Executors.newSingleThreadScheduledExecutor(daemon("deposit-group-timer"));
+        // unbounded queue, but never longer than max-pending: each group holds permits
+        this.committers = Executors.newFixedThreadPool(threads, daemon("deposit-group-commit"));
+        this.groupSizes = DistributionSummary.builder("wallet.deposits.group.size")
+                .description("Deposits committed per group")
+                .register(meters);
+    }
+
+    public TransactionResponse deposit(DepositRequest req) {
+        if (!enabled || req.amount().compareTo(TransactionService.THRESHOLD) > 0) {
+            return txService.deposit(req);
+        }
+        if (!capacity.tryAcquire()) {
+            throw new RejectedExecutionException("Too many deposits waiting to commit");
+        }
+
+        Waiter waiter = new Waiter(req, new CompletableFuture<>());
+        Group[] started = new Group[1];
+        Group[] full = new Group[1];
+        open.compute(req.walletId(), (walletId, current) -> {
+            if (current != null && current.waiters.size() < maxGroupSize) {
+                current.waiters.add(waiter);
+                return current;
+            }
+            full[0] = current;
+            Group next = new Group(walletId);
+            next.waiters.add(waiter);
+            started[0] = next;
+            return next;
+        });
+        if (full[0] != null) flush(full[0]);
+        if (started[0] != null) {
+            Group g = started[0];
+            try {
+                timer.schedule(() -> flush(g), windowMicros, TimeUnit.MICROSECONDS);
+            } catch (RejectedExecutionException e) {
+                // shutting down: don't wait for a timer that won't fire
+                flush(g);
+            }
+        }
+
+        return await(waiter.result());
+    }
+
+    private void flush(Group group) {
+        // after remove no caller can join the group; a full group was already replaced
+        open.remove(group.walletId, group);
+        if (!group.flushed.compareAndSet(false, true)) return;
+        try {
+            committers.execute(() -> commit(group));
+        } catch (RejectedExecutionException e) {
+            // shut down: fail the group instead of leaving its callers waiting
+            fail(group, e);
+        }
+    }
+
+    private void commit(Group group) {
+        List<Waiter> waiters = group.waiters;
+        try {
+            List<TransactionResponse> results = txService.depositAll(new DepositGroup(group.walletId,
+                    waiters.stream().map(Waiter::request).toList()));
+            for (int i = 0; i < waiters.size(); i++) {
+                waiters.get(i).result().complete(results.get(i));
+            }
+            groupSizes.record(waiters.size());
+            capacity.release(waiters.size());
+        } catch (Throwable t) {
+            // the whole group rolled back; Errors too, or the callers would wait for nothing
+            fail(group, t);
+            if (t instanceof Error err) throw err;
+        }
+    }
+
+    private void fail(Group group, Throwable cause) {
+        group.waiters.forEach(w -> w.result().completeExceptionally(cause));
+        capacity.release(group.waiters.size());
+    }
+
+    private TransactionResponse await(CompletableFuture<TransactionResponse> result) {
+        try {
+            return result.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // rethrow the service's own exception so it maps to the usual status
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            // the group may still commit; the caller has to look before retrying
+            throw new DepositOutcomeUnknownException("Deposit was not committed within " + waitTimeout + ", its outcome is unknown");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DepositOutcomeUnknownException("Interrupted while waiting for the deposit to commit, its outcome is unknown", e);
+        }
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger seq = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // commit what is already collected before the context goes away
+        open.values().forEach(this::flush);
+        timer.shutdown();
+        committers.shutdown();
+        try {
+            committers.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.ozgedemir.wallet.service;
+
+import com.ozgedemir.wallet.dto.tx.DepositRequest;
+import com.ozgedemir.wallet.dto.tx.WalletScoped;
+
+import java.util.List;
+
+/** Deposits to one wallet that are committed together, see {@link DepositCoalescer}. */
+public record DepositGroup(Long walletId, List<DepositRequest> deposits) implements WalletScoped {}
@@ -0,0 +1,13 @@
+package com.ozgedemir.wallet.service;
+
+/** A grouped deposit didn't report back in time; it may still commit, so the caller has to look before retrying. */
+public class DepositOutcomeUnknownException extends RuntimeException {
+
+    public DepositOutcomeUnknownException(String message) {
+        super(message);
+    }
+
+    public DepositOutcomeUnknownException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
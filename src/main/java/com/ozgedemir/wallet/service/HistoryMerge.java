@@ -0,0 +1,63 @@
+package com.ozgedemir.wallet.service;
+
+import com.ozgedemir.wallet.dto.tx.TransactionResponse;
+
+import java.util.*;
+
+/**
+ * Merges transaction history read from the hot table and the archive.
+ * Both inputs must be sorted by the same comparator. The hot table is read first, so a row
+ * the archiver moves in between can show up in both inputs, never in neither; such duplicates
+ * sit next to each other in merge order and are dropped here.
+ */
+final class HistoryMerge {
+
+    static final Comparator<TransactionResponse> OLDEST_FIRST =
+            Comparator.comparing(TransactionResponse::createdAt).thenComparing(TransactionResponse::id);
+    static final Comparator<TransactionResponse> NEWEST_FIRST = OLDEST_FIRST.reversed();
+
+    private HistoryMerge() {}
+
+    static List<TransactionResponse> merge(List<TransactionResponse> hot, List<TransactionResponse> archived,
+                                           Comparator<TransactionResponse> order, int limit) {
+        List<TransactionResponse> out = new ArrayList<>(Math.min(limit, hot.size() + archived.size()));
+        Iterator<TransactionResponse> it = merge(hot.iterator(), archived.iterator(), order);
+        while (out.size() < limit && it.hasNext()) out.add(it.next());
+        return out;
+    }
+
+    static Iterator<TransactionResponse> merge(Iterator<TransactionResponse> hot, Iterator<TransactionResponse> archived,
+                                               Comparator<TransactionResponse> order) {
+        return new Iterator<>() {
+            TransactionResponse a = next(hot), b = next(archived), last;
+
+            @Override
+            public boolean hasNext() {
+                skipDuplicates();
+                return a != null || b != null;
+            }
+
+            @Override
+            public TransactionResponse next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                if (b == null || (a != null && order.compare(a, b) <= 0)) {
+                    last = a;
+                    a = next(hot);
+                } else {
+                    last = b;
+                    b = next(archived);
+                }
+                return last;
+            }
+
+            private void skipDuplicates() {
+                while (a != null && last != null && a.id().equals(last.id())) a = next(hot);
+                while (b != null && last != null && b.id().equals(last.id())) b = next(archived);
+            }
+        };
+    }
+
+    private static TransactionResponse next(Iterator<TransactionResponse> it) {
+        return it.hasNext() ? it.next() : null;
+    }
+}
@@ -0,0 +1,202 @@
+package com.ozgedemir.wallet.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ozgedemir.wallet.domain.entities.IdempotentRequest;
+import com.ozgedemir.wallet.domain.repos.IdempotentRequestRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key handling for write endpoints. Keys are scoped per caller.
+ * The first request claims (caller, key, endpoint) with a committed insert, runs, and stores
+ * its response; repeats are answered from the bounded cache or the stored row.
+ * Concurrent duplicates are settled by the unique constraint on the table. A claim whose
+ * response was never stored is released when the request fails, and expires after the lease
+ * if the process died, so a retry can run again instead of seeing 409 until the TTL.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    private static final String IN_PROGRESS = "A request with this " + HEADER + " is still being processed";
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private final IdempotentRequestRepository requests;
+    private final TransactionTemplate txTemplate;
+    private final ObjectMapper mapper;
+    private final Duration ttl;
+    private final Duration lease;
+    private final Cache<String, StoredResponse> cache;
+
+    record StoredResponse(String requestHash, int status, String body) {}
+
+    public IdempotencyService(IdempotentRequestRepository requests,
+                              TransactionTemplate txTemplate,
+                              ObjectMapper mapper,
+                              @Value("${wallet.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${wallet.idempotency.lease:30s}") Duration lease,
+                              @Value("${wallet.idempotency.cache-size:10000}") long cacheSize) {
+        this.requests = requests;
+        this.txTemplate = txTemplate;
+        this.mapper = mapper;
+        this.ttl = ttl;
+        this.lease = lease;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public <T> ResponseEntity<T> execute(String key, String endpoint, Object request,
+                                         Class<T> responseType, Supplier<ResponseEntity<T>> action) {
+        if (key == null) return action.get();
+        if (key.isBlank() || key.length() > 64) {
+            throw new IllegalArgumentException(HEADER + " must be 1-64 characters");
+        }
+
+        String caller = caller();
+        String hash = requestHash(request);
+        String cacheKey = caller + '\0' + endpoint + ' ' + key;
+
+        StoredResponse cached = cache.getIfPresent(cacheKey);
+        if (cached != null) return replay(cached, hash, responseType);
+
+        Long claimId = claim(caller, key, endpoint, hash);
+        if (claimId == null) {
+            IdempotentRequest existing = requests.findByCallerAndIdempotencyKeyAndEndpoint(caller, key, endpoint)
+                    .orElseThrow(() -> new IllegalStateException(IN_PROGRESS));
+            return replay(existing, cacheKey, hash, responseType);
+        }
+
+        boolean stored = false;
+        try {
+            ResponseEntity<T> response = action.get();
+            int status = response.getStatusCode().value();
+            String body = toJson(response.getBody());
+            txTemplate.executeWithoutResult(s -> requests.complete(claimId, status, body));
+            stored = true;
+            cache.put(cacheKey, new StoredResponse(hash, status, body));
+            return response;
+        } finally {
+            // the action failed (and rolled back) or its response couldn't be stored: release the key
+            if (!stored) release(claimId);
+        }
+    }
+
+    /** Id of the claim this request now owns, or null if another request owns or finished it. */
+    private Long claim(String caller, String key, String endpoint, String hash) {
+        Instant now = Instant.now();
+        Optional<IdempotentRequest> existing = requests.findByCallerAndIdempotencyKeyAndEndpoint(caller, key, endpoint);
+        if (existing.isPresent()) {
+            IdempotentRequest r = existing.get();
+            // a stale claim is taken over only by the same request, anything else is answered by replay()
+            boolean stale = r.getResponseStatus() == null && hash.equals(r.getRequestHash())
+                    && (r.getClaimedUntil() == null || r.getClaimedUntil().isBefore(now));
+            if (stale && txTemplate.execute(s -> requests.takeOver(r.getId(), now, now.plus(lease))) == 1) {
+                return r.getId();
+            }
+            return null;
+        }
+
+        // claim the key in its own transaction so concurrent duplicates see it
+        IdempotentRequest claim = new IdempotentRequest();
+        claim.setCaller(caller);
+        claim.setIdempotencyKey(key);
+        claim.setEndpoint(endpoint);
+        claim.setRequestHash(hash);
+        claim.setClaimedUntil(now.plus(lease));
+        try {
+            txTemplate.executeWithoutResult(s -> requests.saveAndFlush(claim));
+            return claim.getId();
+        } catch (DataIntegrityViolationException e) {
+            return null;
+        }
+    }
+
+    private void release(Long claimId) {
+        try {
+            txTemplate.executeWithoutResult(s -> requests.deleteById(claimId));
+        } catch (RuntimeException e) {
+            // leave it to the lease
+            log.warn("Could not release idempotency claim {}", claimId, e);
+        }
+    }
+
+    /** Response cache, exposed for metrics. */
+    public Cache<String, ?> cache() { return cache; }
+
+    @Scheduled(fixedDelayString = "${wallet.idempotency.sweep-interval-ms:60000}")
+    @Transactional
+    public void purgeExpired() {
+        requests.deleteCreatedBefore(Instant.now().minus(ttl));
+    }
+
+    private <T> ResponseEntity<T> replay(IdempotentRequest stored, String cacheKey, String hash, Class<T> type) {
+        if (stored.getResponseStatus() == null) {
+            if (!hash.equals(stored.getRequestHash())) {
+                throw new IllegalStateException(HEADER + " was already used with a different request");
+            }
+            throw new IllegalStateException(IN_PROGRESS);
+        }
+        StoredResponse res = new StoredResponse(stored.getRequestHash(), stored.getResponseStatus(), stored.getResponseBody());
+        ResponseEntity<T> replayed = replay(res, hash, type);
+        cache.put(cacheKey, res);
+        return replayed;
+    }
+
+    private <T> ResponseEntity<T> replay(StoredResponse stored, String hash, Class<T> type) {
+        if (!hash.equals(stored.requestHash())) {
+            throw new IllegalStateException(HEADER + " was already used with a different request");
+        }
+        try {
+            return ResponseEntity.status(stored.status())
+                    .header("Idempotent-Replayed", "true")
+                    .body(mapper.readValue(stored.body(), type));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response cannot be replayed", e);
+        }
+    }
+
+    private static String caller() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null ? auth.getName() : "";
+    }
+
+    // Hash of the request body: a key reused with another body doesn't match
+    private String requestHash(Object request) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(mapper.writeValueAsBytes(request)));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return mapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
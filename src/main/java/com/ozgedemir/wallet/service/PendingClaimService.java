@@ -0,0 +1,46 @@
+package com.ozgedemir.wallet.service;
+
+import com.ozgedemir.wallet.domain.repos.TransactionRepository;
+import com.ozgedemir.wallet.dto.tx.ClaimResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Work queue over PENDING transactions for parallel approval workers.
+ * A claim locks the oldest unclaimed rows with FOR UPDATE SKIP LOCKED, so concurrent
+ * claimers never wait on or receive the same rows, and leases them to the worker.
+ * If the worker doesn't finalize them before the lease expires they become claimable again.
+ */
+@Service
+public class PendingClaimService {
+
+    private final TransactionRepository txs;
+    private final Duration lease;
+    private final int maxClaim;
+
+    public PendingClaimService(TransactionRepository txs,
+                               @Value("${wallet.claims.lease:5m}") Duration lease,
+                               @Value("${wallet.claims.max-size:100}") int maxClaim) {
+        this.txs = txs;
+        this.lease = lease;
+        this.maxClaim = maxClaim;
+    }
+
+    @Transactional
+    public ClaimResponse claim(String worker, int size) {
+        if (size < 1 || size > maxClaim) throw new IllegalArgumentException("size must be between 1 and " + maxClaim);
+
+        Instant now = Instant.now();
+        Instant until = now.plus(lease);
+        List<Long> ids = txs.lockClaimable(now, size);
+        if (ids.isEmpty()) return new ClaimResponse(null, List.of());
+
+        txs.claim(ids, worker, until);
+        return new ClaimResponse(until, txs.findResponsesByIdIn(ids));
+    }
+}
@@ -0,0 +1,28 @@
+package com.ozgedemir.wallet.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Caps the combined row rate of several workers. Each worker calls {@link #acquire()} once
+ * per {@link #BATCH} rows and is parked until the shared schedule has room for the batch.
+ * A rate of 0 or less disables throttling.
+ */
+final class RowThrottle {
+
+    static final int BATCH = 1000;
+
+    private final long nanosPerBatch;
+    private final AtomicLong nextFree = new AtomicLong(System.nanoTime());
+
+    RowThrottle(int rowsPerSecond) {
+        this.nanosPerBatch = rowsPerSecond <= 0 ? 0 : BATCH * 1_000_000_000L / rowsPerSecond;
+    }
+
+    void acquire() {
+        if (nanosPerBatch == 0) return;
+        long now = System.nanoTime();
+        long start = Math.max(now, nextFree.getAndAccumulate(nanosPerBatch, (prev, step) -> Math.max(prev, now) + step));
+        if (start > now) LockSupport.parkNanos(start - now);
+    }
+}
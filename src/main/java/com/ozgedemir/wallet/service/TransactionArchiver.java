@@ -0,0 +1,60 @@
+package com.ozgedemir.wallet.service;
+
+import com.ozgedemir.wallet.domain.repos.ArchivedTransactionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Moves finalized transactions older than {@code wallet.archive.min-age} from the hot table
+ * to transactions_archive. Each batch is its own short transaction that copies and deletes
+ * the rows it locked with SKIP LOCKED, so it never waits on, or blocks for long, live traffic.
+ * PENDING rows are never moved; finalized rows never change, so readers only need to merge.
+ */
+@Component
+public class TransactionArchiver {
+
+    private final ArchivedTransactionRepository archive;
+    private final TransactionTemplate txTemplate;
+    private final boolean enabled;
+    private final Duration minAge;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public TransactionArchiver(ArchivedTransactionRepository archive,
+                               TransactionTemplate txTemplate,
+                               @Value("${wallet.archive.enabled:true}") boolean enabled,
+                               @Value("${wallet.archive.min-age:90d}") Duration minAge,
+                               @Value("${wallet.archive.batch-size:1000}") int batchSize,
+                               @Value("${wallet.archive.max-batches-per-run:100}") int maxBatchesPerRun) {
+        this.archive = archive;
+        this.txTemplate = txTemplate;
+        this.enabled = enabled;
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.archive.interval-ms:60000}")
+    public void run() {
+        if (!enabled) return;
+        Instant cutoff = Instant.now().minus(minAge);
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            Integer moved = txTemplate.execute(s -> moveBatch(cutoff));
+            if (moved == null || moved < batchSize) return;
+        }
+    }
+
+    private int moveBatch(Instant cutoff) {
+        List<Long> ids = archive.lockArchivable(cutoff, batchSize);
+        if (ids.isEmpty()) return 0;
+        archive.copyFromHot(ids);
+        archive.deleteFromHot(ids);
+        return ids.size();
+    }
+}
@@ -0,0 +1,115 @@
+package com.ozgedemir.wallet.service;
+
+import com.ozgedemir.wallet.balance.BalanceStore;
+import com.ozgedemir.wallet.concurrency.OptimisticRetry;
+import com.ozgedemir.wallet.concurrency.WalletLockRegistry;
+import com.ozgedemir.wallet.domain.entities.Transaction;
+import com.ozgedemir.wallet.domain.entities.Wallet;
+import com.ozgedemir.wallet.domain.enums.TransactionType;
+import com.ozgedemir.wallet.domain.repos.TransactionRepository;
+import com.ozgedemir.wallet.dto.tx.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies many deposits/withdrawals in chunked DB transactions.
+ * A chunk loads its wallets with one query, applies the items in order and
+ * flushes the new transactions as JDBC insert batches. Business failures
+ * only fail their own item; a chunk that cannot commit fails as a whole.
+ */
+@Service
+public class TransactionBatchService {
+
+    private final TransactionService txService;
+    private final BalanceStore balances;
+    private final TransactionRepository txs;
+    private final DailyTotalsService dailyTotals;
+    private final TransactionTemplate txTemplate;
+    private final WalletLockRegistry locks;
+    private final OptimisticRetry retry;
+    private final int chunkSize;
+
+    public TransactionBatchService(TransactionService txService,
+                                   BalanceStore balances,
+                                   TransactionRepository txs,
+                                   DailyTotalsService dailyTotals,
+                                   TransactionTemplate txTemplate,
+                                   WalletLockRegistry locks,
+                                   OptimisticRetry retry,
+                                   @Value("${wallet.batch.chunk-size:500}") int chunkSize) {
+        this.txService = txService;
+        this.balances = balances;
+        this.txs = txs;
+        this.dailyTotals = dailyTotals;
+        this.txTemplate = txTemplate;
+        this.locks = locks;
+        this.retry = retry;
+        this.chunkSize = chunkSize;
+    }
+
+    public BatchResponse apply(BatchRequest req) {
+        List<BatchItem> items = req.items();
+        List<BatchItemResult> results = new ArrayList<>(items.size());
+
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            int offset = from;
+            List<BatchItem> chunk = items.subList(from, Math.min(from + chunkSize, items.size()));
+            Set<Long> walletIds = chunk.stream().map(BatchItem::walletId).collect(Collectors.toSet());
+            try {
+                results.addAll(retry.run(() -> locks.withLocks(walletIds,
+                        () -> txTemplate.execute(status -> applyChunk(chunk, walletIds, offset)))));
+            } catch (DataAccessException | TransactionException | IllegalStateException e) {
+                // the chunk was rolled back, none of its items took effect
+                for (int i = 0; i < chunk.size(); i++) {
+                    results.add(BatchItemResult.failed(offset + i, "Chunk rolled back: " + e.getMessage()));
+                }
+            }
+        }
+
+        int ok = (int) results.stream().filter(BatchItemResult::success).count();
+        return new BatchResponse(ok, results.size() - ok, results);
+    }
+
+    private List<BatchItemResult> applyChunk(List<BatchItem> chunk, Set<Long> walletIds, int offset) {
+        Map<Long, Wallet> byId = balances.findAllForUpdate(walletIds).stream()
+                .collect(Collectors.toMap(Wallet::getId, Function.identity()));
+
+        Transaction[] created = new Transaction[chunk.size()];
+        String[] errors = new String[chunk.size()];
+
+        for (int i = 0; i < chunk.size(); i++) {
+            BatchItem item = chunk.get(i);
+            Wallet w = byId.get(item.walletId());
+            if (w == null) {
+                errors[i] = "Wallet not found";
+                continue;
+            }
+            try {
+                created[i] = item.type() == TransactionType.DEPOSIT
+                        ? txService.newDeposit(w, item.amount(), item.oppositePartyType(), item.oppositeParty())
+                        : txService.newWithdraw(w, item.amount(), item.oppositePartyType(), item.oppositeParty());
+            } catch (IllegalStateException e) {
+                errors[i] = e.getMessage();
+            }
+        }
+
+        // ids come from the pooled sequence, inserts are sent as batches at commit
+        List<Transaction> saved = txs.saveAll(Arrays.stream(created).filter(Objects::nonNull).toList());
+        dailyTotals.recordCreated(saved);
+
+        List<BatchItemResult> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            results.add(created[i] != null
+                    ? BatchItemResult.ok(offset + i, txService.map(created[i]))
+                    : BatchItemResult.failed(offset + i, errors[i]));
+        }
+        return results;
+    }
+}
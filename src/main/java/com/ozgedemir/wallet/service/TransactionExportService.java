@@ -0,0 +1,122 @@
+package com.ozgedemir.wallet.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ozgedemir.wallet.domain.repos.ArchivedTransactionRepository;
+import com.ozgedemir.wallet.domain.repos.TransactionRepository;
+import com.ozgedemir.wallet.domain.repos.WalletRepository;
+import com.ozgedemir.wallet.dto.tx.ExportFormat;
+import com.ozgedemir.wallet.dto.tx.TransactionResponse;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams a wallet's full transaction history to an output stream.
+ * Rows come from a forward-only DB cursor and are written as they arrive,
+ * so memory stays flat regardless of history size. If the client goes away
+ * the write fails, the cursor is closed and the read-only transaction ends.
+ * The hot table and the archive are read through two cursors and merged by time.
+ */
+@Service
+public class TransactionExportService {
+
+    private static final String CSV_HEADER = "id,walletId,amount,type,oppositePartyType,oppositeParty,status,createdAt";
+
+    private final TransactionRepository txs;
+    private final ArchivedTransactionRepository archive;
+    private final WalletRepository wallets;
+    private final ObjectWriter rowWriter;
+    private final ObjectMapper mapper;
+    private final int flushEvery;
+
+    public TransactionExportService(TransactionRepository txs,
+                                    ArchivedTransactionRepository archive,
+                                    WalletRepository wallets,
+                                    ObjectMapper mapper,
+                                    @Value("${wallet.export.flush-every:1000}") int flushEvery) {
+        this.txs = txs;
+        this.archive = archive;
+        this.wallets = wallets;
+        this.mapper = mapper;
+        // flushing is done in blocks below, not after every row
+        this.rowWriter = mapper.writerFor(TransactionResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.flushEvery = flushEvery;
+    }
+
+    /**
+     * Call before committing the response to a download, so an unknown wallet still gets a JSON 404.
+     * {@link #export} doesn't check again.
+     */
+    public void requireWallet(Long walletId) {
+        if (!wallets.existsById(walletId)) {
+            throw new EntityNotFoundException("Wallet not found: " + walletId);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void export(Long walletId, ExportFormat format, OutputStream out) throws IOException {
+        // hot cursor is opened first, see HistoryMerge
+        try (Stream<TransactionResponse> hot = txs.streamByWalletId(walletId);
+             Stream<TransactionResponse> archived = archive.streamByWalletId(walletId)) {
+            Iterator<TransactionResponse> rows =
+                    HistoryMerge.merge(hot.iterator(), archived.iterator(), HistoryMerge.OLDEST_FIRST);
+            switch (format) {
+                case NDJSON -> writeNdjson(rows, out);
+                case CSV -> writeCsv(rows, out);
+            }
+        }
+    }
+
+    private void writeNdjson(Iterator<TransactionResponse> rows, OutputStream out) throws IOException {
+        try (JsonGenerator gen = mapper.getFactory().createGenerator(out)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            long n = 0;
+            while (rows.hasNext()) {
+                rowWriter.writeValue(gen, rows.next());
+                gen.writeRaw('\n');
+                if (++n % flushEvery == 0) gen.flush();
+            }
+        }
+    }
+
+    private void writeCsv(Iterator<TransactionResponse> rows, OutputStream out) throws IOException {
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        w.write(CSV_HEADER);
+        w.write('\n');
+        long n = 0;
+        while (rows.hasNext()) {
+            TransactionResponse t = rows.next();
+            w.write(String.valueOf(t.id())); w.write(',');
+            w.write(String.valueOf(t.walletId())); w.write(',');
+            w.write(t.amount().toPlainString()); w.write(',');
+            w.write(t.type().name()); w.write(',');
+            w.write(t.oppositePartyType().name()); w.write(',');
+            w.write(csvField(t.oppositeParty())); w.write(',');
+            w.write(t.status().name()); w.write(',');
+            w.write(t.createdAt().toString());
+            w.write('\n');
+            if (++n % flushEvery == 0) w.flush();
+        }
+        w.flush();
+    }
+
+    // RFC 4180 quoting for free-text fields. A leading = + - @ tab or CR would make a spreadsheet
+    // evaluate the cell as a formula, so such values are prefixed with ' and quoted.
+    static String csvField(String v) {
+        if (v == null || v.isEmpty()) return "";
+        boolean formula = "=+-@\t\r".indexOf(v.charAt(0)) >= 0;
+        if (formula) v = "'" + v;
+        else if (v.indexOf(',') < 0 && v.indexOf('"') < 0 && v.indexOf('\n') < 0 && v.indexOf('\r') < 0) return v;
+        return '"' + v.replace("\"", "\"\"") + '"';
+    }
+}
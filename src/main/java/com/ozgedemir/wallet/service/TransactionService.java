@@ -1,71 +1,168 @@
 package com.ozgedemir.wallet.service;
 
+import com.ozgedemir.wallet.balance.BalanceStore;
+import com.ozgedemir.wallet.balance.InsufficientBalanceException;
+import com.ozgedemir.wallet.concurrency.WalletWrite;
 import com.ozgedemir.wallet.domain.entities.Transaction;
 import com.ozgedemir.wallet.domain.entities.Wallet;
+import com.ozgedemir.wallet.domain.enums.OppositePartyType;
 import com.ozgedemir.wallet.domain.enums.TransactionStatus;
 import com.ozgedemir.wallet.domain.enums.TransactionType;
+import com.ozgedemir.wallet.dto.CursorPage;
 import com.ozgedemir.wallet.dto.tx.*;
+import com.ozgedemir.wallet.domain.repos.ArchivedTransactionRepository;
 import com.ozgedemir.wallet.domain.repos.TransactionRepository;
 import com.ozgedemir.wallet.domain.repos.WalletRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class TransactionService {
 
-    private static final BigDecimal THRESHOLD = new BigDecimal("1000");
+    static final BigDecimal THRESHOLD = new BigDecimal("1000");
+    // offset pages walk both tables in keyset steps of at most this many rows
+    static final int OFFSET_STEP = 1_000;
 
     private final WalletRepository wallets;
     private final TransactionRepository txs;
+    private final ArchivedTransactionRepository archive;
+    private final BalanceStore balances;
+    private final DailyTotalsService dailyTotals;
 
-    public TransactionService(WalletRepository wallets, TransactionRepository txs) {
-        this.wallets = wallets; this.txs = txs;
+    private final Counter insufficientBalance;
+    private final Counter shoppingDisabled;
+    private final Counter withdrawDisabled;
+
+    public TransactionService(WalletRepository wallets, TransactionRepository txs,
+                              ArchivedTransactionRepository archive, BalanceStore balances,
+                              DailyTotalsService dailyTotals, MeterRegistry meters) {
+        this.wallets = wallets; this.txs = txs; this.archive = archive; this.balances = balances;
+        this.dailyTotals = dailyTotals;
+        this.insufficientBalance = rejections(meters, "insufficient_balance");
+        this.shoppingDisabled = rejections(meters, "shopping_disabled");
+        this.withdrawDisabled = rejections(meters, "withdraw_disabled");
+    }
+
+    private static Counter rejections(MeterRegistry meters, String reason) {
+        return Counter.builder("wallet.withdraw.rejections")
+                .description("Withdrawals rejected by business checks")
+                .tag("reason", reason)
+                .register(meters);
     }
 
     // DEPOSIT
+    @WalletWrite(appendOnly = true)
     @Transactional
     public TransactionResponse deposit(DepositRequest req) {
         Wallet w = wallets.findById(req.walletId())
                 .orElseThrow(() -> new EntityNotFoundException("Wallet not found"));
 
-        boolean pending = req.amount().compareTo(THRESHOLD) > 0;
+        // persist transaction (Wallet is updated via the BalanceStore)
+        Transaction saved = txs.save(newDeposit(w, req.amount(), req.oppositePartyType(), req.source()));
+        dailyTotals.recordCreated(List.of(saved));
 
-        Transaction tx = new Transaction();
-        tx.setWallet(w);
-        tx.setType(TransactionType.DEPOSIT);
-        tx.setAmount(req.amount());
-        tx.setOppositePartyType(req.oppositePartyType());
-        tx.setOppositeParty(req.source());
-        tx.setStatus(pending ? TransactionStatus.PENDING : TransactionStatus.APPROVED);
+        return map(saved);
+    }
 
-        // balance updates
-        if (pending) {
-            // only balance increases
-            w.setBalance(w.getBalance().add(req.amount()));
-        } else {
-            // both balance and usableBalance increase
-            w.setBalance(w.getBalance().add(req.amount()));
-            w.setUsableBalance(w.getUsableBalance().add(req.amount()));
+    // DEPOSIT (group commit): one wallet load, one summed balance update, batched inserts
+    @WalletWrite(appendOnly = true)
+    @Transactional
+    public List<TransactionResponse> depositAll(DepositGroup group) {
+        Wallet w = wallets.findById(group.walletId())
+                .orElseThrow(() -> new EntityNotFoundException("Wallet not found"));
+
+        List<Transaction> created = group.deposits().stream()
+                .map(req -> depositOf(w, req.amount(), req.oppositePartyType(), req.source()))
+                .toList();
+        BigDecimal balance = BigDecimal.ZERO, usable = BigDecimal.ZERO;
+        for (Transaction t : created) {
+            balance = balance.add(t.getAmount());
+            if (t.getStatus() == TransactionStatus.APPROVED) usable = usable.add(t.getAmount());
         }
+        balances.apply(w, balance, usable);
+        List<Transaction> saved = txs.saveAll(created);
+        dailyTotals.recordCreated(saved);
+        return saved.stream().map(this::map).toList();
+    }
 
-        // persist transaction (Wallet will be updated via JPA dirty checking)
-        Transaction saved = txs.save(tx);
+    // LIST - newest first across the hot table and the archive. Rows before the page are skipped
+    // one keyset step at a time, so memory stays flat at any depth; deep pages still read every
+    // row before them, /scroll doesn't.
+    @Transactional(readOnly = true)
+    public Page<TransactionResponse> list(Long walletId, Pageable p) {
+        long skip = p.getOffset();
+        int size = p.getPageSize();
+        List<TransactionResponse> content = new ArrayList<>(size);
+        KeysetCursor.Position after = null;
+        while (content.size() < size) {
+            int step = (int) Math.min(OFFSET_STEP, skip + size - content.size());
+            Limit limit = Limit.of(step);
+            // hot first, see HistoryMerge
+            List<TransactionResponse> hot = after == null
+                    ? txs.scrollFirst(walletId, limit)
+                    : txs.scrollAfter(walletId, after.createdAt(), after.id(), limit);
+            List<TransactionResponse> archived = after == null
+                    ? archive.scrollFirst(walletId, limit)
+                    : archive.scrollAfter(walletId, after.createdAt(), after.id(), limit);
+            List<TransactionResponse> rows = HistoryMerge.merge(hot, archived, HistoryMerge.NEWEST_FIRST, step);
 
-        return map(saved);
+            for (TransactionResponse row : rows) {
+                if (skip > 0) skip--;
+                else content.add(row);
+            }
+            if (rows.size() < step) break;
+            TransactionResponse last = rows.get(rows.size() - 1);
+            after = new KeysetCursor.Position(last.createdAt(), last.id());
+        }
+        long total = txs.countByWalletId(walletId) + archive.countByWalletId(walletId);
+        return new PageImpl<>(List.copyOf(content), p, total);
     }
 
-    // LIST
+    // LIST (keyset) - cost doesn't grow with page depth
     @Transactional(readOnly = true)
-    public Page<TransactionResponse> list(Long walletId, Pageable p) {
-        return txs.findByWalletId(walletId, p).map(this::map);
+    public CursorPage<TransactionResponse> scroll(Long walletId, String after, int size) {
+        if (size < 1 || size > 500) throw new IllegalArgumentException("size must be between 1 and 500");
+
+        // fetch one extra row to know whether there is a next page; hot first, see HistoryMerge
+        Limit limit = Limit.of(size + 1);
+        List<TransactionResponse> hot;
+        List<TransactionResponse> archived;
+        if (after == null || after.isBlank()) {
+            hot = txs.scrollFirst(walletId, limit);
+            archived = archive.scrollFirst(walletId, limit);
+        } else {
+            KeysetCursor.Position pos = KeysetCursor.decode(after);
+            hot = txs.scrollAfter(walletId, pos.createdAt(), pos.id(), limit);
+            archived = archive.scrollAfter(walletId, pos.createdAt(), pos.id(), limit);
+        }
+        List<TransactionResponse> rows = HistoryMerge.merge(hot, archived, HistoryMerge.NEWEST_FIRST, size + 1);
+
+        if (rows.size() <= size) return new CursorPage<>(rows, null);
+
+        List<TransactionResponse> page = rows.subList(0, size);
+        TransactionResponse last = page.get(size - 1);
+        return new CursorPage<>(List.copyOf(page), KeysetCursor.encode(last.createdAt(), last.id()));
     }
 
     // APPROVE/DENY
+    @WalletWrite(byTransactionId = true)
     @Transactional
     public TransactionResponse approve(Long txId, ApproveRequest req) {
         Transaction tx = txs.findById(txId)
@@ -81,88 +178,206 @@ public class TransactionService {
             throw new IllegalStateException("Transaction is already finalized");
         }
 
+        // Leased to another approval worker, return 409
+        if (isClaimedByOther(tx)) {
+            throw new IllegalStateException("Transaction is claimed by another worker");
+        }
+
+        // a transfer's legs are finalized together, so money is never created or lost
+        Transaction related = tx.getRelatedTransactionId() == null
+                ? txs.findFirstByRelatedTransactionId(tx.getId()).orElse(null)
+                : txs.findById(tx.getRelatedTransactionId())
+                        .orElseThrow(() -> new IllegalStateException("Transfer leg " + tx.getRelatedTransactionId() + " is missing"));
+        if (related == null) {
+            finalizePending(tx, req.status());
+            return map(tx);
+        }
+        if (related.getStatus() != TransactionStatus.PENDING) {
+            throw new IllegalStateException("Transfer leg " + related.getId() + " is already finalized");
+        }
+        if (isClaimedByOther(related)) {
+            throw new IllegalStateException("Transfer leg " + related.getId() + " is claimed by another worker");
+        }
+
+        // wallets are written in id order, so approvals of opposite transfers can't deadlock on the rows
+        // when they aren't serialized by the in-process locks
+        List<Transaction> legs = tx.getWallet().getId() <= related.getWallet().getId()
+                ? List.of(tx, related)
+                : List.of(related, tx);
+        legs.forEach(leg -> finalizePending(leg, req.status()));
+
+        return map(tx);
+    }
+
+    private void finalizePending(Transaction tx, TransactionStatus status) {
         Wallet w = tx.getWallet();
+        BigDecimal amount = tx.getAmount();
 
         switch (tx.getType()) {
             case DEPOSIT -> {
-                if (req.status() == TransactionStatus.APPROVED) {
+                if (status == TransactionStatus.APPROVED) {
                     // pending deposit -> add to usableBalance (balance was already increased)
-                    w.setUsableBalance(w.getUsableBalance().add(tx.getAmount()));
+                    balances.apply(w, BigDecimal.ZERO, amount);
                 } else { // DENIED
                     // deny pending deposit -> subtract from balance (revert the earlier increase)
-                    w.setBalance(w.getBalance().subtract(tx.getAmount()));
+                    balances.apply(w, amount.negate(), BigDecimal.ZERO);
                 }
             }
             case WITHDRAW -> {
-                if (req.status() == TransactionStatus.APPROVED) {
+                if (status == TransactionStatus.APPROVED) {
                     // approve pending withdraw -> subtract from balance (usable was already reserved)
-                    w.setBalance(w.getBalance().subtract(tx.getAmount()));
+                    balances.apply(w, amount.negate(), BigDecimal.ZERO);
                 } else { // DENIED
                     // deny pending withdraw -> add back to usableBalance (release reservation)
-                    w.setUsableBalance(w.getUsableBalance().add(tx.getAmount()));
+                    balances.apply(w, BigDecimal.ZERO, amount);
                 }
             }
             default -> throw new IllegalStateException("Unsupported transaction type");
         }
 
-        tx.setStatus(req.status());
+        dailyTotals.recordFinalized(tx, status);
+        tx.setStatus(status);
         txs.save(tx);
+    }
 
-        return map(tx);
+    private static boolean isClaimedByOther(Transaction tx) {
+        if (tx.getClaimedBy() == null || tx.getClaimExpiresAt() == null
+                || tx.getClaimExpiresAt().isBefore(Instant.now())) {
+            return false;
+        }
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth == null || !tx.getClaimedBy().equals(auth.getName());
     }
 
     // WITHDRAW
+    @WalletWrite
     @Transactional
     public TransactionResponse withdraw(WithdrawRequest req) {
-        Wallet w = wallets.findById(req.walletId())
+        Wallet w = balances.findForUpdate(req.walletId())
                 .orElseThrow(() -> new EntityNotFoundException("Wallet not found"));
 
+        // persist transaction
+        Transaction saved = txs.save(newWithdraw(w, req.amount(), req.oppositePartyType(), req.destination()));
+        dailyTotals.recordCreated(List.of(saved));
+        return map(saved);
+    }
+
+    // TRANSFER: a WITHDRAW leg and a DEPOSIT leg in one DB transaction, the debit leg linked to the credit leg.
+    // Both rows are locked in id order (the aspect takes the in-process locks in a fixed order too),
+    // so transfers in opposite directions wait for each other instead of deadlocking.
+    @WalletWrite
+    @Transactional
+    public TransferResponse transfer(TransferRequest req) {
+        if (req.fromWalletId().equals(req.toWalletId())) {
+            throw new IllegalArgumentException("Cannot transfer to the same wallet");
+        }
+        Map<Long, Wallet> byId = wallets.findAllByIdForUpdate(req.walletIds()).stream()
+                .collect(Collectors.toMap(Wallet::getId, Function.identity()));
+        Wallet from = byId.get(req.fromWalletId());
+        Wallet to = byId.get(req.toWalletId());
+        if (from == null || to == null) {
+            throw new EntityNotFoundException("Wallet not found: " + (from == null ? req.fromWalletId() : req.toWalletId()));
+        }
+        if (from.getCurrency() != to.getCurrency()) {
+            throw new IllegalArgumentException("Wallets have different currencies");
+        }
+
+        // same amount, so both legs land on the same side of THRESHOLD: both APPROVED or both PENDING
+        Transaction debit = newWithdraw(from, req.amount(), OppositePartyType.IBAN, "WALLET:" + to.getId());
+        Transaction credit = txs.save(newDeposit(to, req.amount(), OppositePartyType.IBAN, "WALLET:" + from.getId()));
+        // only the debit carries the link: setting it on a leg after save would cost an UPDATE per leg
+        debit.setRelatedTransactionId(credit.getId());
+        debit = txs.save(debit);
+
+        dailyTotals.recordCreated(List.of(debit, credit));
+        return new TransferResponse(map(debit), map(credit));
+    }
+
+    // Builds a deposit and applies it to the wallet balances. Shared with the batch path,
+    // so it must not throw after mutating the wallet.
+    Transaction newDeposit(Wallet w, BigDecimal amount, OppositePartyType partyType, String source) {
+        Transaction tx = depositOf(w, amount, partyType, source);
+        boolean pending = tx.getStatus() == TransactionStatus.PENDING;
+
+        // balance updates
+        if (pending) {
+            // only balance increases
+            balances.apply(w, amount, BigDecimal.ZERO);
+        } else {
+            // both balance and usableBalance increase
+            balances.apply(w, amount, amount);
+        }
+        return tx;
+    }
+
+    // Builds a deposit without touching the wallet balances
+    private static Transaction depositOf(Wallet w, BigDecimal amount, OppositePartyType partyType, String source) {
+        boolean pending = amount.compareTo(THRESHOLD) > 0;
+
+        Transaction tx = new Transaction();
+        tx.setWallet(w);
+        tx.setType(TransactionType.DEPOSIT);
+        tx.setAmount(amount);
+        tx.setOppositePartyType(partyType);
+        tx.setOppositeParty(source);
+        tx.setStatus(pending ? TransactionStatus.PENDING : TransactionStatus.APPROVED);
+        return tx;
+    }
+
+    // Builds a withdrawal and applies it to the wallet balances. All checks run before
+    // the wallet is touched, so a rejected withdrawal leaves it unchanged.
+    Transaction newWithdraw(Wallet w, BigDecimal amount, OppositePartyType partyType, String destination) {
         // Feature flags depending on oppositePartyType
-        switch (req.oppositePartyType()) {
+        switch (partyType) {
             case PAYMENT -> {
                 if (!w.isActiveForShopping()) {
+                    shoppingDisabled.increment();
                     throw new IllegalStateException("Wallet is not active for shopping");
                 }
             }
             case IBAN -> {
                 if (!w.isActiveForWithdraw()) {
+                    withdrawDisabled.increment();
                     throw new IllegalStateException("Wallet is not active for withdraw");
                 }
             }
         }
 
-        // Sufficient usable balance check (required for both reservation and instant withdraw)
-        if (w.getUsableBalance().compareTo(req.amount()) < 0) {
+        // Sufficient usable balance check (required for both reservation and instant withdraw).
+        // A lock-free store checks in the UPDATE itself, so reading the balance first would only cost a round trip.
+        if (!balances.lockFree(w.getId()) && balances.usableBalance(w).compareTo(amount) < 0) {
+            insufficientBalance.increment();
             throw new IllegalStateException("Insufficient usable balance");
         }
 
-        boolean pending = req.amount().compareTo(THRESHOLD) > 0;
+        boolean pending = amount.compareTo(THRESHOLD) > 0;
 
-        // balance updates
-        if (pending) {
-            // for pending: reserve only from usableBalance
-            w.setUsableBalance(w.getUsableBalance().subtract(req.amount()));
-        } else {
-            // for approved: subtract from both usableBalance and balance
-            w.setUsableBalance(w.getUsableBalance().subtract(req.amount()));
-            w.setBalance(w.getBalance().subtract(req.amount()));
+        // balance updates; the atomic strategy checks the balance in the UPDATE itself
+        try {
+            if (pending) {
+                // for pending: reserve only from usableBalance
+                balances.apply(w, BigDecimal.ZERO, amount.negate());
+            } else {
+                // for approved: subtract from both usableBalance and balance
+                balances.apply(w, amount.negate(), amount.negate());
+            }
+        } catch (InsufficientBalanceException e) {
+            insufficientBalance.increment();
+            throw e;
         }
 
-        // persist transaction
         Transaction tx = new Transaction();
         tx.setWallet(w);
         tx.setType(TransactionType.WITHDRAW);
-        tx.setAmount(req.amount());
-        tx.setOppositePartyType(req.oppositePartyType());
-        tx.setOppositeParty(req.destination());
+        tx.setAmount(amount);
+        tx.setOppositePartyType(partyType);
+        tx.setOppositeParty(destination);
         tx.setStatus(pending ? TransactionStatus.PENDING : TransactionStatus.APPROVED);
-
-        Transaction saved = txs.save(tx);
-        return map(saved);
+        return tx;
     }
 
     // mapper
-    private TransactionResponse map(Transaction t) {
+    TransactionResponse map(Transaction t) {
         return new TransactionResponse(
                 t.getId(),
                 t.getWallet().getId(),
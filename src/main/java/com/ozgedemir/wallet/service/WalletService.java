@@ -1,13 +1,17 @@
 package com.ozgedemir.wallet.service;
 
+import com.ozgedemir.wallet.cache.WalletReadCache;
 import com.ozgedemir.wallet.domain.entities.Customer;
 import com.ozgedemir.wallet.domain.entities.Wallet;
 import com.ozgedemir.wallet.domain.enums.Currency;
+import com.ozgedemir.wallet.dto.CursorPage;
 import com.ozgedemir.wallet.dto.wallet.CreateWalletRequest;
 import com.ozgedemir.wallet.dto.wallet.WalletResponse;
 import com.ozgedemir.wallet.domain.repos.CustomerRepository;
 import com.ozgedemir.wallet.domain.repos.WalletRepository;
+import com.ozgedemir.wallet.domain.repos.WalletRow;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,10 +22,12 @@ public class WalletService {
 
     private final WalletRepository wallets;
     private final CustomerRepository customers;
+    private final WalletReadCache cache;
 
-    public WalletService(WalletRepository wallets, CustomerRepository customers) {
+    public WalletService(WalletRepository wallets, CustomerRepository customers, WalletReadCache cache) {
         this.wallets = wallets;
         this.customers = customers;
+        this.cache = cache;
     }
 
     @Transactional
@@ -40,32 +46,41 @@ public class WalletService {
         return map(saved);
     }
 
-    @Transactional(readOnly = true)
+    // Not @Transactional: a cache hit needs no connection, a miss uses the repository's own read-only transaction
     public WalletResponse get(Long id) {
-        Wallet w = wallets.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Wallet not found: " + id));
-        return map(w);
+        return cache.get(id, key -> {
+            WalletRow row = wallets.findRowById(key)
+                    .orElseThrow(() -> new EntityNotFoundException("Wallet not found: " + key));
+            return new WalletReadCache.Entry(row.version(), row.toResponse());
+        });
     }
 
     @Transactional(readOnly = true)
-    public List<WalletResponse> list(Long customerId, Currency currency) {
-        List<Wallet> result;
+    public CursorPage<WalletResponse> list(Long customerId, Currency currency, String after, int size) {
+        if (size < 1 || size > 500) throw new IllegalArgumentException("size must be between 1 and 500");
+
+        long afterId = after == null || after.isBlank() ? 0L : KeysetCursor.decodeId(after);
+        // fetch one extra row to know whether there is a next page
+        Limit limit = Limit.of(size + 1);
+        List<WalletResponse> rows;
 
         if (customerId != null && currency != null) {
-            result = wallets.findByCustomerIdAndCurrency(customerId, currency);
+            rows = wallets.scrollByCustomerAndCurrency(customerId, currency, afterId, limit);
         } else if (customerId != null) {
-            result = wallets.findByCustomerId(customerId);
+            rows = wallets.scrollByCustomer(customerId, afterId, limit);
         } else if (currency != null) {
-            result = wallets.findByCurrency(currency);
+            rows = wallets.scrollByCurrency(currency, afterId, limit);
         } else {
-            result = wallets.findAll();
+            rows = wallets.scroll(afterId, limit);
         }
 
-        return result.stream().map(this::map).toList();
-    }
+        if (rows.size() <= size) return new CursorPage<>(rows, null);
 
+        List<WalletResponse> page = rows.subList(0, size);
+        return new CursorPage<>(List.copyOf(page), KeysetCursor.encode(page.get(size - 1).id()));
+    }
 
-    private WalletResponse map(Wallet w) {
+    WalletResponse map(Wallet w) {
         return new WalletResponse(
                 w.getId(),
                 w.getCustomer().getId(),
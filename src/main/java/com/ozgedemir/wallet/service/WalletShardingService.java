@@ -0,0 +1,53 @@
+package com.ozgedemir.wallet.service;
+
+import com.ozgedemir.wallet.balance.ShardedBalanceStore;
+import com.ozgedemir.wallet.cache.WalletReadCache;
+import com.ozgedemir.wallet.domain.repos.WalletBalanceSlotRepository;
+import com.ozgedemir.wallet.domain.repos.WalletRepository;
+import com.ozgedemir.wallet.dto.wallet.WalletResponse;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Moves a wallet between sharded and unsharded (or to another slot count).
+ * All slots are folded back into the wallet row under the row and slot locks, then
+ * the new number of empty slots is created; balances don't change.
+ */
+@Service
+public class WalletShardingService {
+
+    private final WalletRepository wallets;
+    private final WalletBalanceSlotRepository slots;
+    private final ShardedBalanceStore sharded;
+    private final WalletReadCache walletCache;
+
+    public WalletShardingService(WalletRepository wallets, WalletBalanceSlotRepository slots,
+                                 ShardedBalanceStore sharded, WalletReadCache walletCache) {
+        this.wallets = wallets;
+        this.slots = slots;
+        this.sharded = sharded;
+        this.walletCache = walletCache;
+    }
+
+    @Transactional
+    public WalletResponse reshard(Long walletId, int slotCount) {
+        if (slotCount < 1) throw new IllegalArgumentException("slots must be at least 1");
+        wallets.findByIdForUpdate(walletId)
+                .orElseThrow(() -> new EntityNotFoundException("Wallet not found: " + walletId));
+
+        // deposits blocked on a locked slot find it deleted and fall back to the wallet row
+        slots.lockAll(walletId);
+        slots.foldIntoWallet(walletId, slotCount);
+        slots.deleteAll(walletId);
+        if (slotCount > 1) {
+            for (int slot = 0; slot < slotCount; slot++) {
+                slots.create(walletId, slot);
+            }
+        }
+
+        walletCache.evictAfterCommit(walletId);
+        sharded.forgetSlotCount(walletId);
+        return wallets.findRowById(walletId).orElseThrow().toResponse();
+    }
+}
@@ -0,0 +1,43 @@
+package com.ozgedemir.wallet.web;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * application/cbor and application/x-jackson-smile next to JSON, for internal clients that opt in
+ * with Content-Type / Accept. The mappers come from Boot's builder, so they carry the same modules
+ * and settings as the JSON one. The converters go last: clients that send no Accept header, or a
+ * wildcard, keep getting JSON.
+ */
+@Configuration
+public class BinaryFormatsConfig implements WebMvcConfigurer {
+
+    public static final MediaType APPLICATION_SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> builders;
+
+    public BinaryFormatsConfig(ObjectProvider<Jackson2ObjectMapperBuilder> builders) {
+        this.builders = builders;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Spring adds its own when the format jars are present; those build a fresh reader/writer per call
+        converters.removeIf(c -> c instanceof MappingJackson2CborHttpMessageConverter
+                || c instanceof MappingJackson2SmileHttpMessageConverter);
+        converters.add(new BinaryJacksonHttpMessageConverter(
+                builders.getObject().factory(new CBORFactory()).build(), MediaType.APPLICATION_CBOR));
+        converters.add(new BinaryJacksonHttpMessageConverter(
+                builders.getObject().factory(new SmileFactory()).build(), APPLICATION_SMILE));
+    }
+}
@@ -0,0 +1,80 @@
+package com.ozgedemir.wallet.web;
+
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads and writes one binary Jackson format (CBOR, Smile) for its media type.
+ * Readers and writers are built once per type and reused; the set of DTO types is small and fixed.
+ * BigDecimal is encoded natively by both formats (unscaled value + scale), so amounts stay exact.
+ */
+public class BinaryJacksonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private final ObjectMapper mapper;
+    private final Map<JavaType, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final ClassValue<ObjectWriter> writers = new ClassValue<>() {
+        @Override
+        protected ObjectWriter computeValue(Class<?> type) {
+            return mapper.writerFor(type).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+    };
+
+    public BinaryJacksonHttpMessageConverter(ObjectMapper mapper, MediaType mediaType) {
+        super(mediaType);
+        this.mapper = mapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return true;
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage input) throws IOException {
+        return read(mapper.constructType(GenericTypeResolver.resolveType(type, contextClass)), input);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage input) throws IOException {
+        return read(mapper.constructType(clazz), input);
+    }
+
+    private Object read(JavaType type, HttpInputMessage input) throws IOException {
+        ObjectReader reader = readers.computeIfAbsent(type,
+                t -> mapper.readerFor(t).without(JsonParser.Feature.AUTO_CLOSE_SOURCE));
+        try {
+            return reader.readValue(input.getBody());
+        } catch (JacksonException e) {
+            throw new HttpMessageNotReadableException("Could not read " + getSupportedMediaTypes().get(0) + ": "
+                    + e.getOriginalMessage(), e, input);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object value, Type type, HttpOutputMessage output) throws IOException {
+        try {
+            writers.get(value.getClass()).writeValue(output.getBody(), value);
+        } catch (JsonMappingException e) {
+            throw new HttpMessageNotWritableException("Could not write " + getSupportedMediaTypes().get(0) + ": "
+                    + e.getOriginalMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+-- Per wallet, per UTC day of created_at: count and sum of transactions by type and status.
+-- Kept in step by the writers in the same DB transaction; rebuilt from history by DailyTotalsBackfill.
+-- Writers increment one of N stripe rows per (wallet, day, type, status) instead of a single row,
+-- so concurrent writes to one wallet rarely wait on each other. Reads sum the stripes.
+create table wallet_daily_totals (
+                                     wallet_id bigint not null,
+                                     tx_date date not null,
+                                     type varchar(10) not null,
+                                     status varchar(10) not null,
+                                     stripe int not null default 0,
+                                     tx_count bigint not null default 0,
+                                     amount numeric(19,2) not null default 0,
+                                     primary key (wallet_id, tx_date, type, status, stripe),
+                                     constraint fk_daily_totals_wallet foreign key (wallet_id) references wallets(id)
+);
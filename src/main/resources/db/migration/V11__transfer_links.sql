@@ -0,0 +1,7 @@
+-- A transfer is a WITHDRAW leg on the source wallet and a DEPOSIT leg on the target wallet.
+-- The WITHDRAW (debit) leg points at the DEPOSIT (credit) leg; the credit leg's link stays null.
+-- Legs are approved or denied together.
+alter table transactions add column related_transaction_id bigint;
+alter table transactions_archive add column related_transaction_id bigint;
+
+create index idx_tx_related on transactions(related_transaction_id);
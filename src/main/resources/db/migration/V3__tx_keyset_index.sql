@@ -0,0 +1,4 @@
+-- Keyset pagination walks transactions by (created_at, id) within a wallet.
+-- The composite index covers the old wallet_id lookups as well.
+drop index if exists idx_tx_wallet;
+create index idx_tx_wallet_created on transactions(wallet_id, created_at, id);
@@ -0,0 +1,25 @@
+-- Store what the first request produced, so retries can be answered without re-running it.
+-- response_status is null while the first request is still in flight; claimed_until is when that
+-- claim goes stale (its owner crashed) and another request may take it over.
+-- Keys are scoped per caller, so the table is rebuilt with (caller, key, endpoint) as the unique key.
+create table idempotent_requests_scoped (
+                                            id bigint generated by default as identity primary key,
+                                            caller varchar(100) not null default '',
+                                            idempotency_key varchar(64) not null,
+                                            endpoint varchar(120) not null,
+                                            created_at timestamp not null default current_timestamp,
+                                            request_hash varchar(64),
+                                            response_status int,
+                                            response_body varchar(4000),
+                                            claimed_until timestamp,
+                                            constraint uq_idem_caller_key unique (caller, idempotency_key, endpoint)
+);
+
+insert into idempotent_requests_scoped(id, idempotency_key, endpoint, created_at)
+select id, idempotency_key, endpoint, created_at from idempotent_requests;
+
+drop table idempotent_requests;
+alter table idempotent_requests_scoped rename to idempotent_requests;
+
+-- TTL sweeper deletes by age
+create index idx_idem_created on idempotent_requests(created_at);
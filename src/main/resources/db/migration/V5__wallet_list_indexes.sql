@@ -0,0 +1,3 @@
+-- Keyset listing filters by customer and/or currency and pages by id
+create index idx_wallet_customer_currency on wallets(customer_id, currency, id);
+create index idx_wallet_currency on wallets(currency, id);
@@ -0,0 +1,6 @@
+-- Approval workers lease PENDING rows; an expired lease makes the row claimable again
+alter table transactions add column claimed_by varchar(100);
+alter table transactions add column claim_expires_at timestamp;
+
+-- Claim queue: PENDING rows, oldest first
+create index idx_tx_status_created on transactions(status, created_at);
@@ -0,0 +1,18 @@
+-- Ledger mode: money movements are appended here instead of updating the wallets row.
+-- A wallet's balances are its row (the snapshot) plus all entries still in this table;
+-- the compactor folds entries into the row and deletes them in one transaction.
+create sequence ledger_entries_seq start with 1 increment by 50;
+
+create table ledger_entries (
+                                id bigint primary key,
+                                wallet_id bigint not null,
+                                balance_delta numeric(19,2) not null,
+                                usable_delta numeric(19,2) not null,
+                                created_at timestamp not null default current_timestamp,
+                                constraint fk_ledger_wallet foreign key (wallet_id) references wallets(id)
+);
+
+create index idx_ledger_wallet on ledger_entries(wallet_id, id);
+
+-- Approval no longer always writes the wallets row, so the transaction row carries its own version
+alter table transactions add column version int not null default 0;
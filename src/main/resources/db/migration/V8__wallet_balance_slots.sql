@@ -0,0 +1,12 @@
+-- Sharded wallets: deposits land on one of slot_count counter rows instead of the wallets row.
+-- A wallet's balances are the row plus all of its slots (plus ledger entries).
+alter table wallets add column slot_count int not null default 1;
+
+create table wallet_balance_slots (
+                                      wallet_id bigint not null,
+                                      slot int not null,
+                                      balance numeric(19,2) not null default 0,
+                                      usable_balance numeric(19,2) not null default 0,
+                                      primary key (wallet_id, slot),
+                                      constraint fk_slot_wallet foreign key (wallet_id) references wallets(id)
+);
@@ -0,0 +1,15 @@
+-- Finalized (APPROVED/DENIED) transactions past wallet.archive.min-age are moved here in small batches,
+-- keeping the hot table and its indexes proportional to recent activity. Rows never change once archived.
+create table transactions_archive (
+                                      id bigint primary key,
+                                      wallet_id bigint not null,
+                                      amount numeric(19,2) not null,
+                                      type varchar(10) not null,
+                                      opposite_party_type varchar(10) not null,
+                                      opposite_party varchar(64) not null,
+                                      status varchar(10) not null,
+                                      created_at timestamp not null,
+                                      archived_at timestamp not null default current_timestamp
+);
+
+create index idx_tx_archive_wallet_created on transactions_archive(wallet_id, created_at, id);
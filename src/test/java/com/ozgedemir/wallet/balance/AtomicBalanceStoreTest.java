@@ -0,0 +1,92 @@
+package com.ozgedemir.wallet.balance;
+
+import com.ozgedemir.wallet.cache.WalletReadCache;
+import com.ozgedemir.wallet.domain.entities.Wallet;
+import com.ozgedemir.wallet.domain.repos.LedgerEntryRepository;
+import com.ozgedemir.wallet.domain.repos.WalletRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AtomicBalanceStoreTest {
+
+    WalletRepository wallets = mock(WalletRepository.class);
+    EntityManager em = mock(EntityManager.class);
+    Session session = mock(Session.class);
+    WalletReadCache walletCache = mock(WalletReadCache.class);
+    LedgerEntryRepository entries = mock(LedgerEntryRepository.class);
+    DirectBalanceStore store = new DirectBalanceStore(wallets, entries, em, walletCache, UpdateStrategy.ATOMIC);
+
+    Wallet wallet;
+
+    @BeforeEach
+    void setUp() {
+        when(em.unwrap(Session.class)).thenReturn(session);
+        wallet = new Wallet();
+        wallet.setId(1L);
+        wallet.setBalance(new BigDecimal("100"));
+        wallet.setUsableBalance(new BigDecimal("100"));
+    }
+
+    @Test
+    void covered_debit_is_one_conditional_update() {
+        when(wallets.addIfCovered(eq(1L), any(), any())).thenReturn(1);
+
+        store.apply(wallet, new BigDecimal("-30"), new BigDecimal("-30"));
+
+        verify(wallets).addIfCovered(1L, new BigDecimal("-30"), new BigDecimal("-30"));
+        verify(wallets, never()).lockRow(any());
+        // the entity follows for the response but is never flushed
+        verify(session).setReadOnly(wallet, true);
+        assertThat(wallet.getUsableBalance()).isEqualByComparingTo("70");
+        verify(walletCache).evictAfterCommit(1L);
+    }
+
+    @Test
+    void uncovered_debit_throws_and_leaves_the_entity_alone() {
+        when(wallets.addIfCovered(eq(1L), any(), any())).thenReturn(0);
+
+        assertThatThrownBy(() -> store.apply(wallet, new BigDecimal("-300"), new BigDecimal("-300")))
+                .isInstanceOf(InsufficientBalanceException.class);
+
+        assertThat(wallet.getBalance()).isEqualByComparingTo("100");
+        assertThat(wallet.getUsableBalance()).isEqualByComparingTo("100");
+        verifyNoInteractions(walletCache);
+    }
+
+    @Test
+    void sharded_debit_waits_for_the_row_lock_first() {
+        wallet.setSlotCount(4);
+        when(wallets.addIfCovered(eq(1L), any(), any())).thenReturn(1);
+
+        store.apply(wallet, BigDecimal.ZERO, new BigDecimal("-30"));
+        store.apply(wallet, new BigDecimal("10"), new BigDecimal("10"));
+
+        InOrder order = inOrder(wallets);
+        order.verify(wallets).lockRow(1L);
+        order.verify(wallets, times(2)).addIfCovered(eq(1L), any(), any());
+        verify(wallets, times(1)).lockRow(1L);
+    }
+
+    @Test
+    void uncovered_debit_folds_leftover_entries_and_checks_once_more() {
+        when(wallets.addIfCovered(eq(1L), any(), any())).thenReturn(0, 1);
+        when(entries.findIdsByWalletId(eq(1L), any())).thenReturn(List.of(5L));
+
+        store.apply(wallet, new BigDecimal("-130"), new BigDecimal("-130"));
+
+        InOrder order = inOrder(wallets, entries);
+        order.verify(wallets).addIfCovered(1L, new BigDecimal("-130"), new BigDecimal("-130"));
+        order.verify(entries).foldIntoWallet(1L, List.of(5L));
+        order.verify(wallets).addIfCovered(1L, new BigDecimal("-130"), new BigDecimal("-130"));
+    }
+}
@@ -0,0 +1,84 @@
+package com.ozgedemir.wallet.balance;
+
+import com.ozgedemir.wallet.domain.entities.LedgerEntry;
+import com.ozgedemir.wallet.domain.entities.Wallet;
+import com.ozgedemir.wallet.domain.enums.OppositePartyType;
+import com.ozgedemir.wallet.domain.repos.LedgerEntryRepository;
+import com.ozgedemir.wallet.domain.repos.WalletRepository;
+import com.ozgedemir.wallet.dto.tx.WithdrawRequest;
+import com.ozgedemir.wallet.service.TransactionService;
+import com.ozgedemir.wallet.support.TestWallets;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(properties = "wallet.balance.update-strategy=atomic")
+class AtomicUpdateStrategyTest {
+
+    @Autowired TestWallets testWallets;
+    @Autowired @Qualifier(BalanceStore.ROW) BalanceStore rows;
+    @Autowired TransactionService txService;
+    @Autowired WalletRepository wallets;
+    @Autowired TransactionTemplate txTemplate;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired LedgerEntryRepository entries;
+
+    @Test
+    void withdrawals_check_and_write_in_the_database() {
+        Long walletId = testWallets.create("100.00");
+
+        txService.withdraw(new WithdrawRequest(walletId, new BigDecimal("60.00"), OppositePartyType.IBAN, "TR1"));
+        assertThatThrownBy(() -> txService.withdraw(new WithdrawRequest(walletId, new BigDecimal("60.00"), OppositePartyType.IBAN, "TR1")))
+                .isInstanceOf(IllegalStateException.class);
+
+        Wallet w = wallets.findById(walletId).orElseThrow();
+        assertThat(w.getBalance()).isEqualByComparingTo("40.00");
+        assertThat(w.getUsableBalance()).isEqualByComparingTo("40.00");
+    }
+
+    @Test
+    void stale_entity_is_never_written_over_the_conditional_update() {
+        Long walletId = testWallets.create("100.00");
+
+        txTemplate.executeWithoutResult(s -> {
+            Wallet w = wallets.findById(walletId).orElseThrow();    // reads 100
+            // another writer commits a deposit after this transaction read the row
+            CompletableFuture.runAsync(() -> jdbc.update(
+                    "update wallets set balance = balance + 50, usable_balance = usable_balance + 50 where id = ?",
+                    walletId)).join();
+
+            rows.apply(w, new BigDecimal("-10.00"), new BigDecimal("-10.00"));
+            assertThat(w.getUsableBalance()).isEqualByComparingTo("90.00");    // stale, for the response only
+        });
+
+        Wallet w = wallets.findById(walletId).orElseThrow();
+        assertThat(w.getBalance()).isEqualByComparingTo("140.00");
+        assertThat(w.getUsableBalance()).isEqualByComparingTo("140.00");
+    }
+
+    @Test
+    void uncompacted_ledger_entries_count_without_a_balance_read_first() {
+        Long debited = testWallets.create("100.00");
+        Long credited = testWallets.create("0.00");
+        // left behind by a ledger-mode run: a withdrawal of 80 and a deposit of 80
+        entries.save(new LedgerEntry(debited, new BigDecimal("-80.00"), new BigDecimal("-80.00")));
+        entries.save(new LedgerEntry(credited, new BigDecimal("80.00"), new BigDecimal("80.00")));
+
+        assertThatThrownBy(() -> txService.withdraw(new WithdrawRequest(debited, new BigDecimal("50.00"), OppositePartyType.IBAN, "TR1")))
+                .isInstanceOf(InsufficientBalanceException.class);
+        txService.withdraw(new WithdrawRequest(debited, new BigDecimal("20.00"), OppositePartyType.IBAN, "TR1"));
+        // the credit only counts once folded, which the rejected UPDATE triggers
+        txService.withdraw(new WithdrawRequest(credited, new BigDecimal("50.00"), OppositePartyType.IBAN, "TR1"));
+
+        assertThat(wallets.findById(credited).orElseThrow().getUsableBalance()).isEqualByComparingTo("30.00");
+        assertThat(entries.sumUsableDelta(credited)).isEqualByComparingTo("0");
+    }
+}
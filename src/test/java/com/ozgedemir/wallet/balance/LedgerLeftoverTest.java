@@ -0,0 +1,45 @@
+package com.ozgedemir.wallet.balance;
+
+import com.ozgedemir.wallet.domain.entities.LedgerEntry;
+import com.ozgedemir.wallet.domain.entities.Wallet;
+import com.ozgedemir.wallet.domain.enums.OppositePartyType;
+import com.ozgedemir.wallet.domain.repos.LedgerEntryRepository;
+import com.ozgedemir.wallet.domain.repos.WalletRepository;
+import com.ozgedemir.wallet.dto.tx.WithdrawRequest;
+import com.ozgedemir.wallet.service.TransactionService;
+import com.ozgedemir.wallet.support.TestWallets;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.*;
+
+// Direct mode with entries a ledger-mode run left behind; the compactor is kept out of the way
+@SpringBootTest(properties = "wallet.balance.compaction.interval-ms=3600000")
+class LedgerLeftoverTest {
+
+    @Autowired TestWallets testWallets;
+    @Autowired TransactionService txService;
+    @Autowired WalletRepository wallets;
+    @Autowired LedgerEntryRepository entries;
+
+    @Test
+    void withdrawal_counts_uncompacted_entries() {
+        Long id = testWallets.create("100.00");
+        // a withdrawal of 80 made in ledger mode, not yet folded into the row
+        entries.save(new LedgerEntry(id, new BigDecimal("-80.00"), new BigDecimal("-80.00")));
+
+        assertThatThrownBy(() -> txService.withdraw(new WithdrawRequest(id, new BigDecimal("50.00"), OppositePartyType.PAYMENT, "SHOP")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Insufficient usable balance");
+
+        txService.withdraw(new WithdrawRequest(id, new BigDecimal("20.00"), OppositePartyType.PAYMENT, "SHOP"));
+
+        Wallet w = wallets.findById(id).orElseThrow();
+        assertThat(w.getUsableBalance()).isEqualByComparingTo("0.00");
+        assertThat(w.getBalance()).isEqualByComparingTo("0.00");
+        assertThat(entries.sumUsableDelta(id)).isEqualByComparingTo("0");
+    }
+}
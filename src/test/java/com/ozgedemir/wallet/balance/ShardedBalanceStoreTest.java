@@ -0,0 +1,77 @@
+package com.ozgedemir.wallet.balance;
+
+import com.ozgedemir.wallet.cache.WalletReadCache;
+import com.ozgedemir.wallet.domain.entities.Wallet;
+import com.ozgedemir.wallet.domain.repos.WalletBalanceSlotRepository;
+import com.ozgedemir.wallet.domain.repos.WalletRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ShardedBalanceStoreTest {
+
+    BalanceStore rows = mock(BalanceStore.class);
+    WalletRepository wallets = mock(WalletRepository.class);
+    WalletBalanceSlotRepository slots = mock(WalletBalanceSlotRepository.class);
+    WalletReadCache walletCache = mock(WalletReadCache.class);
+    ShardedBalanceStore store = new ShardedBalanceStore(rows, wallets, slots, walletCache);
+
+    Wallet wallet;
+
+    @BeforeEach
+    void setUp() {
+        wallet = new Wallet();
+        wallet.setId(1L);
+        wallet.setSlotCount(4);
+    }
+
+    @Test
+    void usable_balance_is_row_plus_slots() {
+        when(rows.usableBalance(wallet)).thenReturn(new BigDecimal("100"));
+        when(slots.sumUsable(1L)).thenReturn(new BigDecimal("50"));
+
+        assertThat(store.usableBalance(wallet)).isEqualByComparingTo("150");
+    }
+
+    @Test
+    void unsharded_wallet_doesnt_read_slots() {
+        wallet.setSlotCount(1);
+        when(rows.usableBalance(wallet)).thenReturn(new BigDecimal("100"));
+
+        assertThat(store.usableBalance(wallet)).isEqualByComparingTo("100");
+        verifyNoInteractions(slots);
+    }
+
+    @Test
+    void deposit_goes_to_a_slot() {
+        when(slots.add(eq(1L), anyInt(), any(), any())).thenReturn(1);
+
+        store.apply(wallet, new BigDecimal("10"), new BigDecimal("10"));
+
+        verify(slots).add(eq(1L), intThat(s -> s >= 0 && s < 4), eq(new BigDecimal("10")), eq(new BigDecimal("10")));
+        verify(rows, never()).apply(any(), any(), any());
+        verify(walletCache).evictAfterCommit(1L);
+    }
+
+    @Test
+    void deposit_to_a_slot_removed_by_a_reshard_falls_back_to_the_row() {
+        when(slots.add(eq(1L), anyInt(), any(), any())).thenReturn(0);
+
+        store.apply(wallet, new BigDecimal("10"), new BigDecimal("10"));
+
+        verify(rows).apply(wallet, new BigDecimal("10"), new BigDecimal("10"));
+    }
+
+    @Test
+    void debits_always_go_to_the_row() {
+        store.apply(wallet, new BigDecimal("-10"), new BigDecimal("-10"));
+
+        verify(rows).apply(wallet, new BigDecimal("-10"), new BigDecimal("-10"));
+        verifyNoInteractions(slots);
+    }
+}
@@ -0,0 +1,46 @@
+package com.ozgedemir.wallet.cache;
+
+import com.ozgedemir.wallet.domain.enums.Currency;
+import com.ozgedemir.wallet.dto.wallet.WalletResponse;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class WalletReadCacheTest {
+
+    WalletReadCache cache = new WalletReadCache(100, Duration.ofMinutes(1));
+
+    @Test
+    void second_read_is_served_from_cache() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, id -> { loads.incrementAndGet(); return entry(0, "10"); });
+        WalletResponse res = cache.get(1L, id -> { loads.incrementAndGet(); return entry(0, "10"); });
+
+        assertThat(res.balance()).isEqualByComparingTo("10");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void load_that_overlaps_a_write_is_not_cached() {
+        // the write commits (and evicts) while the first reader is still loading the old row
+        WalletResponse stale = cache.get(1L, id -> {
+            cache.evictAfterCommit(1L);
+            return entry(0, "10");
+        });
+        WalletResponse fresh = cache.get(1L, id -> entry(1, "25"));
+
+        assertThat(stale.balance()).isEqualByComparingTo("10");
+        assertThat(fresh.balance()).isEqualByComparingTo("25");
+    }
+
+    private static WalletReadCache.Entry entry(int version, String balance) {
+        BigDecimal b = new BigDecimal(balance);
+        return new WalletReadCache.Entry(version,
+                new WalletResponse(1L, 1L, "main", Currency.TRY, true, true, b, b));
+    }
+}
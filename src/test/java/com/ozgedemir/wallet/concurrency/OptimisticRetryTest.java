@@ -0,0 +1,55 @@
+package com.ozgedemir.wallet.concurrency;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class OptimisticRetryTest {
+
+    OptimisticRetry retry = new OptimisticRetry(3, 1, 5);
+
+    @Test
+    void retries_optimistic_failure_until_success() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String res = retry.run(() -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException("Wallet", 1L);
+            }
+            return "ok";
+        });
+
+        assertThat(res).isEqualTo("ok");
+        assertThat(calls).hasValue(3);
+        assertThat(retry.retries()).isEqualTo(2);
+        assertThat(retry.exhaustedRetries()).isZero();
+    }
+
+    @Test
+    void gives_up_after_max_attempts() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> retry.run(() -> {
+            calls.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("Wallet", 1L);
+        })).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        assertThat(calls).hasValue(3);
+        assertThat(retry.exhaustedRetries()).isEqualTo(1);
+    }
+
+    @Test
+    void does_not_retry_business_errors() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> retry.run(() -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("Insufficient usable balance");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(calls).hasValue(1);
+    }
+}
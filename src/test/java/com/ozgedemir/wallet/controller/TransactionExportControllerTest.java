@@ -0,0 +1,74 @@
+package com.ozgedemir.wallet.controller;
+
+import com.ozgedemir.wallet.events.TransactionEventHub;
+import com.ozgedemir.wallet.security.JwtAuthFilter;
+import com.ozgedemir.wallet.security.SecurityConfig;
+import com.ozgedemir.wallet.service.*;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = TransactionController.class)
+@Import({ SecurityConfig.class, TransactionExportControllerTest.TestBeans.class })
+class TransactionExportControllerTest {
+
+    @Autowired MockMvc mvc;
+
+    @MockitoBean TransactionService txService;
+    @MockitoBean TransactionBatchService batchService;
+    @MockitoBean TransactionExportService exportService;
+    @MockitoBean IdempotencyService idempotency;
+    @MockitoBean BulkApprovalService bulkApproval;
+    @MockitoBean PendingClaimService claims;
+    @MockitoBean DepositCoalescer deposits;
+    @MockitoBean TransactionEventHub events;
+
+    @TestConfiguration
+    static class TestBeans {
+        @Bean
+        JwtAuthFilter jwtAuthFilter() {
+            // authentication comes from @WithMockUser
+            return new JwtAuthFilter(null) {
+                @Override
+                protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+                        throws java.io.IOException, jakarta.servlet.ServletException {
+                    chain.doFilter(req, res);
+                }
+            };
+        }
+    }
+
+    @Test
+    @WithMockUser(roles = "CUSTOMER")
+    void export_unknownWallet_isJson404_withoutAttachment() throws Exception {
+        doThrow(new EntityNotFoundException("Wallet not found: 99")).when(exportService).requireWallet(99L);
+
+        mvc.perform(get("/api/v1/transactions/export").param("walletId", "99").param("format", "CSV"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_DISPOSITION))
+                .andExpect(jsonPath("$.message").value("Wallet not found: 99"));
+
+        verify(exportService, never()).export(eq(99L), any(), any());
+    }
+}
@@ -0,0 +1,103 @@
+package com.ozgedemir.wallet.controller;
+
+import com.ozgedemir.wallet.domain.enums.Currency;
+import com.ozgedemir.wallet.dto.CursorPage;
+import com.ozgedemir.wallet.dto.wallet.WalletResponse;
+import com.ozgedemir.wallet.security.JwtAuthFilter;
+import com.ozgedemir.wallet.security.SecurityConfig;
+import com.ozgedemir.wallet.service.DailyTotalsService;
+import com.ozgedemir.wallet.service.WalletService;
+import com.ozgedemir.wallet.service.WalletShardingService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = WalletController.class)
+@Import({ SecurityConfig.class, WalletControllerTest.TestBeans.class })
+class WalletControllerTest {
+
+    @Autowired MockMvc mvc;
+
+    @MockitoBean WalletService walletService;
+    @MockitoBean WalletShardingService sharding;
+    @MockitoBean DailyTotalsService dailyTotals;
+
+    @TestConfiguration
+    static class TestBeans {
+        @Bean
+        JwtAuthFilter jwtAuthFilter() {
+            // authentication comes from @WithMockUser
+            return new JwtAuthFilter(null) {
+                @Override
+                protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+                        throws java.io.IOException, jakarta.servlet.ServletException {
+                    chain.doFilter(req, res);
+                }
+            };
+        }
+    }
+
+    @Test
+    @WithMockUser(roles = "CUSTOMER")
+    void list_passes_filters_and_cursor_through_and_returns_the_next_one() throws Exception {
+        WalletResponse w = new WalletResponse(12L, 3L, "main", Currency.USD, true, true, BigDecimal.ZERO, BigDecimal.ZERO);
+        when(walletService.list(3L, Currency.USD, "MTE", 1)).thenReturn(new CursorPage<>(List.of(w), "MTI"));
+
+        mvc.perform(get("/api/v1/wallets")
+                        .param("customerId", "3").param("currency", "USD").param("after", "MTE").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(12))
+                .andExpect(jsonPath("$.items[0].currency").value("USD"))
+                .andExpect(jsonPath("$.next").value("MTI"));
+    }
+
+    @Test
+    @WithMockUser(roles = "CUSTOMER")
+    void list_without_filters_uses_the_default_page_size() throws Exception {
+        when(walletService.list(null, null, null, 50)).thenReturn(new CursorPage<>(List.of(), null));
+
+        mvc.perform(get("/api/v1/wallets"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isEmpty())
+                .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(roles = "CUSTOMER")
+    void invalid_cursor_is_400() throws Exception {
+        when(walletService.list(null, null, "garbage!", 50)).thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        mvc.perform(get("/api/v1/wallets").param("after", "garbage!"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid cursor"));
+    }
+
+    @Test
+    @WithMockUser(roles = "CUSTOMER")
+    void unknown_currency_is_400_without_reaching_the_service() throws Exception {
+        mvc.perform(get("/api/v1/wallets").param("currency", "GBP"))
+                .andExpect(status().isBadRequest());
+
+        verify(walletService, never()).list(any(), any(), any(), anyInt());
+    }
+}
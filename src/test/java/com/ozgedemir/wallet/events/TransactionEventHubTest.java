@@ -0,0 +1,193 @@
+package com.ozgedemir.wallet.events;
+
+import com.ozgedemir.wallet.domain.enums.OppositePartyType;
+import com.ozgedemir.wallet.domain.enums.TransactionStatus;
+import com.ozgedemir.wallet.domain.enums.TransactionType;
+import com.ozgedemir.wallet.domain.repos.WalletRepository;
+import com.ozgedemir.wallet.dto.tx.TransactionResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.*;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TransactionEventHubTest {
+
+    static final Duration SEND_TIMEOUT = Duration.ofMillis(100);
+
+    WalletRepository wallets = mock(WalletRepository.class);
+    SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    TransactionEventHub hub;
+
+    @BeforeEach
+    void setUp() {
+        when(wallets.existsById(any())).thenReturn(true);
+        hub = new TransactionEventHub(wallets, meters, 100, 20, 2, Duration.ofMinutes(1), SEND_TIMEOUT) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                return new TestEmitter();
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    @Test
+    void events_fan_out_to_every_subscriber_of_the_wallet() throws Exception {
+        TestEmitter a1 = subscribe(1L), a2 = subscribe(1L), b = subscribe(2L);
+
+        hub.publishAfterCommit(tx(10, 1L));
+
+        assertThat(a1.next()).extracting(TransactionResponse::id).isEqualTo(10L);
+        assertThat(a2.next()).extracting(TransactionResponse::id).isEqualTo(10L);
+        assertThat(b.sent.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void full_queue_disconnects_the_slow_subscriber_only() throws Exception {
+        TestEmitter slow = subscribe(1L), fast = subscribe(1L);
+        slow.gate = new CountDownLatch(1);
+
+        hub.publishAfterCommit(tx(1, 1L));
+        assertThat(slow.entered.await(5, TimeUnit.SECONDS)).isTrue();    // stuck sending event 1
+        assertThat(fast.next().id()).isEqualTo(1L);
+        for (long id = 2; id <= 4; id++) {
+            hub.publishAfterCommit(tx(id, 1L));                              // 2 and 3 fill slow's queue
+            assertThat(fast.next().id()).isEqualTo(id);
+        }
+
+        assertThat(dropped()).isEqualTo(1);
+        assertThat(subscribers()).isEqualTo(1);
+        // the publisher only interrupted the stuck send; slow's own sender completed the stream
+        await(() -> slow.completed);
+        assertThat(slow.interrupted).isTrue();
+        assertThat(slow.error).isNull();
+        assertThat(slow.completedOn).startsWith("tx-events-send-");
+    }
+
+    @Test
+    void stalled_send_is_disconnected_on_the_heartbeat() throws Exception {
+        TestEmitter stuck = subscribe(1L), other = subscribe(2L);
+        stuck.gate = new CountDownLatch(1);
+
+        hub.publishAfterCommit(tx(1, 1L));
+        assertThat(stuck.entered.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(SEND_TIMEOUT.toMillis() * 2);
+        hub.heartbeat();
+
+        assertThat(dropped()).isEqualTo(1);
+        assertThat(subscribers()).isEqualTo(1);
+        // the blocked sender was interrupted and completed the stream itself, not the heartbeat thread
+        await(() -> stuck.error != null);
+        assertThat(stuck.interrupted).isTrue();
+        assertThat(stuck.error).isInstanceOf(IOException.class).hasMessageContaining("stalled");
+        assertThat(stuck.completedOn).startsWith("tx-events-send-");
+
+        hub.publishAfterCommit(tx(2, 2L));
+        assertThat(other.next().id()).isEqualTo(2L);
+    }
+
+    @Test
+    void client_that_went_away_is_removed() throws Exception {
+        TestEmitter gone = subscribe(1L);
+        gone.failWith = new IOException("Broken pipe");
+
+        hub.publishAfterCommit(tx(1, 1L));
+
+        await(() -> gone.error != null);
+        assertThat(subscribers()).isZero();
+        assertThat(gone.error).isSameAs(gone.failWith);
+        assertThat(dropped()).isZero();
+
+        hub.publishAfterCommit(tx(2, 1L));
+        assertThat(gone.sent).isEmpty();
+    }
+
+    private TestEmitter subscribe(Long walletId) {
+        return (TestEmitter) hub.subscribe(walletId);
+    }
+
+    private double dropped() {
+        return meters.get("wallet.events.dropped").counter().count();
+    }
+
+    private double subscribers() {
+        return meters.get("wallet.events.subscribers").gauge().value();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail("condition not met within 5s");
+            Thread.sleep(10);
+        }
+    }
+
+    private static TransactionResponse tx(long id, Long walletId) {
+        return new TransactionResponse(id, walletId, BigDecimal.TEN, TransactionType.DEPOSIT, OppositePartyType.IBAN,
+                "TR1", TransactionStatus.APPROVED, Instant.now());
+    }
+
+    // Records transaction events; a set gate blocks sends the way a client that stopped reading does
+    static class TestEmitter extends SseEmitter {
+        final BlockingQueue<TransactionResponse> sent = new LinkedBlockingQueue<>();
+        final CountDownLatch entered = new CountDownLatch(1);
+        volatile CountDownLatch gate;
+        volatile IOException failWith;
+        volatile boolean completed, interrupted;
+        volatile Throwable error;
+        volatile String completedOn;
+
+        @Override
+        public void send(SseEventBuilder event) throws IOException {
+            if (failWith != null) throw failWith;
+            entered.countDown();
+            CountDownLatch g = gate;
+            if (g != null) {
+                try {
+                    g.await();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    throw new IOException(e);
+                }
+            }
+            event.build().stream()
+                    .map(DataWithMediaType::getData)
+                    .filter(TransactionResponse.class::isInstance)
+                    .forEach(d -> sent.add((TransactionResponse) d));
+        }
+
+        @Override
+        public void complete() {
+            completedOn = Thread.currentThread().getName();
+            completed = true;
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            if (error != null) return;
+            completedOn = Thread.currentThread().getName();
+            error = ex;
+        }
+
+        TransactionResponse next() throws InterruptedException {
+            TransactionResponse tx = sent.poll(5, TimeUnit.SECONDS);
+            assertThat(tx).as("event within 5s").isNotNull();
+            return tx;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.ozgedemir.wallet.events;
+
+import com.ozgedemir.wallet.domain.entities.Transaction;
+import com.ozgedemir.wallet.domain.entities.Wallet;
+import com.ozgedemir.wallet.domain.enums.TransactionStatus;
+import com.ozgedemir.wallet.dto.tx.TransactionResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class TransactionEventListenerTest {
+
+    TransactionEventHub hub = mock(TransactionEventHub.class);
+    TransactionEventListener listener = new TransactionEventListener(hub);
+    Transaction tx;
+
+    @BeforeEach
+    void setUp() {
+        Wallet w = new Wallet();
+        w.setId(1L);
+        tx = new Transaction();
+        tx.setId(5L);
+        tx.setWallet(w);
+        tx.setStatus(TransactionStatus.PENDING);
+    }
+
+    @Test
+    void insert_then_update_without_a_status_change_publishes_once() {
+        listener.created(tx);
+        tx.setRelatedTransactionId(6L);
+        listener.updated(tx);
+
+        verify(hub, times(1)).publishAfterCommit(any(TransactionResponse.class));
+    }
+
+    @Test
+    void loaded_row_publishes_only_when_its_status_changes() {
+        listener.loaded(tx);
+        tx.setClaimedBy("worker-a");
+        listener.updated(tx);
+        verify(hub, never()).publishAfterCommit(any(TransactionResponse.class));
+
+        tx.setStatus(TransactionStatus.APPROVED);
+        listener.updated(tx);
+        listener.updated(tx);    // a later flush of the same entity
+        verify(hub, times(1)).publishAfterCommit(argThat((TransactionResponse r) -> r.status() == TransactionStatus.APPROVED));
+        verify(hub, times(1)).publishAfterCommit(any(TransactionResponse.class));
+    }
+}
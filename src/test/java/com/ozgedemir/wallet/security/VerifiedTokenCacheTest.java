@@ -0,0 +1,83 @@
+package com.ozgedemir.wallet.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class VerifiedTokenCacheTest {
+
+    static final String SECRET = "bV3q2y7kK2Zx1mZr8HJyPqZfU5t9Wc3sQ6d8r0a2f4g6h8j0l2n4p6r8t0v2x4z6";
+    static final String OTHER_SECRET = "x4z6bV3q2y7kK2Zx1mZr8HJyPqZfU5t9Wc3sQ6d8r0a2f4g6h8j0l2n4p6r8t0v2";
+
+    JwtUtil jwtUtil = spy(new JwtUtil(SECRET, "wallet-api", 120));
+    VerifiedTokenCache tokens = new VerifiedTokenCache(jwtUtil, 100, Duration.ofMinutes(5));
+
+    @Test
+    void valid_token_is_verified_once_then_served_from_cache() {
+        String token = jwtUtil.generateToken("alice", "CUSTOMER");
+
+        VerifiedTokenCache.VerifiedToken first = tokens.verify(token);
+        VerifiedTokenCache.VerifiedToken second = tokens.verify(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.username()).isEqualTo("alice");
+        assertThat(first.authorities()).extracting(Object::toString).containsExactly("ROLE_CUSTOMER");
+        verify(jwtUtil, times(1)).parse(token);
+    }
+
+    @Test
+    void cached_token_is_rejected_and_evicted_once_it_expires() throws Exception {
+        String token = token(SECRET, Instant.now().plusSeconds(2));
+        tokens.verify(token);
+        assertThat(tokens.cache().estimatedSize()).isEqualTo(1);
+
+        Thread.sleep(3_000);
+
+        assertThatThrownBy(() -> tokens.verify(token)).isInstanceOf(ExpiredJwtException.class);
+        tokens.cache().cleanUp();
+        assertThat(tokens.cache().asMap()).isEmpty();
+    }
+
+    @Test
+    void expired_token_is_rejected_and_not_cached() {
+        String token = token(SECRET, Instant.now().minusSeconds(60));
+
+        assertThatThrownBy(() -> tokens.verify(token)).isInstanceOf(ExpiredJwtException.class);
+        assertThat(tokens.cache().asMap()).isEmpty();
+    }
+
+    @Test
+    void badly_signed_or_malformed_tokens_are_never_cached() {
+        String forged = token(OTHER_SECRET, Instant.now().plusSeconds(600));
+        String valid = jwtUtil.generateToken("alice", "CUSTOMER");
+        String tampered = valid.substring(0, valid.length() - 2) + (valid.endsWith("AA") ? "BB" : "AA");
+
+        for (String token : new String[]{forged, tampered, "not.a.jwt", "garbage"}) {
+            // twice: a failure must not leave anything behind that the second call could hit
+            assertThatThrownBy(() -> tokens.verify(token)).isInstanceOf(JwtException.class);
+            assertThatThrownBy(() -> tokens.verify(token)).isInstanceOf(JwtException.class);
+        }
+        assertThat(tokens.cache().asMap()).isEmpty();
+    }
+
+    private static String token(String secret, Instant expiresAt) {
+        return Jwts.builder()
+                .setSubject("alice")
+                .claim("role", "CUSTOMER")
+                .setIssuer("wallet-api")
+                .setIssuedAt(Date.from(Instant.now().minusSeconds(120)))
+                .setExpiration(Date.from(expiresAt))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -1,7 +1,9 @@
 package com.ozgedemir.wallet.security;
 
 import com.ozgedemir.wallet.controller.WalletController;
+import com.ozgedemir.wallet.service.DailyTotalsService;
 import com.ozgedemir.wallet.service.WalletService;
+import com.ozgedemir.wallet.service.WalletShardingService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -38,7 +40,17 @@ class WalletControllerSecurityTest {
 
         @Bean
         WalletService walletService() {
-            return new WalletService(null, null) { };
+            return new WalletService(null, null, null) { };
+        }
+
+        @Bean
+        WalletShardingService walletShardingService() {
+            return new WalletShardingService(null, null, null, null);
+        }
+
+        @Bean
+        DailyTotalsService dailyTotalsService() {
+            return new DailyTotalsService(null, null, 1);
         }
     }
 
@@ -0,0 +1,62 @@
+package com.ozgedemir.wallet.service;
+
+import com.ozgedemir.wallet.domain.entities.Customer;
+import com.ozgedemir.wallet.domain.repos.CustomerRepository;
+import com.ozgedemir.wallet.security.CredentialHashingExecutor;
+import com.ozgedemir.wallet.security.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AuthServiceTest {
+
+    CustomerRepository customers = mock(CustomerRepository.class);
+    BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(5);
+    JwtUtil jwt = new JwtUtil("bV3q2y7kK2Zx1mZr8HJyPqZfU5t9Wc3sQ6d8r0a2f4g6h8j0l2n4p6r8t0v2x4z6", "wallet-api", 5);
+    AuthService service = new AuthService(customers, encoder, jwt, new CredentialHashingExecutor(1, 4));
+
+    Customer alice;
+
+    @BeforeEach
+    void setUp() {
+        alice = new Customer();
+        alice.setId(2L);
+        alice.setUsername("alice@wallet");
+        alice.setRole("CUSTOMER");
+        when(customers.findByUsername("alice@wallet")).thenReturn(Optional.of(alice));
+    }
+
+    @Test
+    void login_returns_token_and_keeps_hash_at_configured_strength() {
+        alice.setPasswordHash(encoder.encode("password"));
+
+        String token = service.login("alice@wallet", "password").join();
+
+        assertThat(jwt.parse(token).getBody().getSubject()).isEqualTo("alice@wallet");
+        verify(customers, never()).updatePasswordHash(anyLong(), anyString());
+    }
+
+    @Test
+    void login_upgrades_weaker_hash() {
+        alice.setPasswordHash(new BCryptPasswordEncoder(4).encode("password"));
+
+        service.login("alice@wallet", "password").join();
+
+        verify(customers).updatePasswordHash(eq(2L), argThat(h -> h.startsWith("$2a$05$")));
+    }
+
+    @Test
+    void login_with_wrong_password_fails() {
+        alice.setPasswordHash(encoder.encode("password"));
+
+        assertThatThrownBy(() -> service.login("alice@wallet", "nope").join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,98 @@
+package com.ozgedemir.wallet.service;
+
+import com.ozgedemir.wallet.domain.enums.OppositePartyType;
+import com.ozgedemir.wallet.domain.enums.TransactionStatus;
+import com.ozgedemir.wallet.domain.repos.ArchivedTransactionRepository;
+import com.ozgedemir.wallet.domain.repos.TransactionRepository;
+import com.ozgedemir.wallet.dto.tx.ApproveRequest;
+import com.ozgedemir.wallet.dto.tx.DepositRequest;
+import com.ozgedemir.wallet.dto.tx.WithdrawRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.ozgedemir.wallet.support.TestWallets;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class BalanceReconciliationServiceTest {
+
+    @Autowired TestWallets testWallets;
+    @Autowired BalanceReconciliationService reconciliation;
+    @Autowired TransactionService txService;
+    @Autowired JdbcTemplate jdbc;
+
+    @Test
+    void history_is_summed_with_the_balance_rules() {
+        Long walletId = testWallets.create();
+        deposit(walletId, "100");                                                   // APPROVED
+        deposit(walletId, "1500");                                                  // PENDING
+        txService.approve(deposit(walletId, "2000"), new ApproveRequest(TransactionStatus.DENIED));
+        txService.approve(deposit(walletId, "3000"), new ApproveRequest(TransactionStatus.APPROVED));
+        withdraw(walletId, "50");                                                   // APPROVED
+        withdraw(walletId, "1200");                                                 // PENDING
+        txService.approve(withdraw(walletId, "1100"), new ApproveRequest(TransactionStatus.DENIED));
+
+        assertThat(reconciliation.reconcileAll().mismatches()).noneMatch(m -> m.walletId().equals(walletId));
+
+        jdbc.update("update wallets set balance = balance + 1, usable_balance = usable_balance - 1 where id = ?", walletId);
+
+        assertThat(reconciliation.reconcileAll().mismatches()).filteredOn(m -> m.walletId().equals(walletId))
+                .singleElement().satisfies(m -> {
+                    // balance: + deposits PENDING/APPROVED, - withdrawals APPROVED
+                    assertThat(m.expectedBalance()).isEqualByComparingTo("4550");
+                    assertThat(m.actualBalance()).isEqualByComparingTo("4551");
+                    // usable: + deposits APPROVED, - withdrawals PENDING/APPROVED
+                    assertThat(m.expectedUsableBalance()).isEqualByComparingTo("1850");
+                    assertThat(m.actualUsableBalance()).isEqualByComparingTo("1849");
+                });
+        jdbc.update("update wallets set balance = balance - 1, usable_balance = usable_balance + 1 where id = ?", walletId);
+    }
+
+    @Test
+    void only_one_run_at_a_time_and_the_nightly_trigger_never_blocks() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1), release = new CountDownLatch(1);
+        WalletRepository blocking = mock(WalletRepository.class);
+        when(blocking.maxId()).thenAnswer(inv -> {
+            entered.countDown();
+            release.await();
+            return 0L;
+        });
+        var service = new BalanceReconciliationService(blocking, mock(TransactionRepository.class),
+                mock(ArchivedTransactionRepository.class), mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(), 1, 500, 10, 1000);
+
+        service.nightly();          // returns at once, the run waits on its own thread
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(service.isRunning()).isTrue();
+
+        service.nightly();          // skipped
+        assertThatThrownBy(service::start).isInstanceOf(IllegalStateException.class);
+        verify(blocking, times(1)).maxId();
+
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (service.isRunning() && System.nanoTime() < deadline) Thread.sleep(10);
+        assertThat(service.isRunning()).isFalse();
+        assertThat(service.latest()).hasValueSatisfying(r -> assertThat(r.walletsChecked()).isZero());
+
+        service.start();
+        verify(blocking, timeout(5000).times(2)).maxId();
+    }
+
+    private Long deposit(Long walletId, String amount) {
+        return txService.deposit(new DepositRequest(walletId, new BigDecimal(amount), OppositePartyType.IBAN, "TR1")).id();
+    }
+
+    private Long withdraw(Long walletId, String amount) {
+        return txService.withdraw(new WithdrawRequest(walletId, new BigDecimal(amount), OppositePartyType.IBAN, "TR2")).id();
+    }
+}
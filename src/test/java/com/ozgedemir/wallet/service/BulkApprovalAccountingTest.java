@@ -0,0 +1,96 @@
+package com.ozgedemir.wallet.service;
+
+import com.ozgedemir.wallet.domain.entities.Wallet;
+import com.ozgedemir.wallet.domain.enums.OppositePartyType;
+import com.ozgedemir.wallet.domain.enums.TransactionStatus;
+import com.ozgedemir.wallet.domain.repos.WalletRepository;
+import com.ozgedemir.wallet.dto.tx.*;
+import com.ozgedemir.wallet.support.TestWallets;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class BulkApprovalAccountingTest {
+
+    @Autowired TestWallets testWallets;
+    @Autowired BulkApprovalService bulkApproval;
+    @Autowired TransactionService txService;
+    @Autowired WalletRepository wallets;
+
+    @Test
+    void mixed_bulk_approve_and_deny_match_single_approvals() {
+        Long bulk = testWallets.create("10000.00");
+        Long single = testWallets.create("10000.00");
+        Pending b = pendingMix(bulk);
+        Pending s = pendingMix(single);
+        // pending deposits count in balance only, pending withdrawals are reserved from usable balance
+        assertBalances(bulk, "13500.00", "5800.00");
+
+        assertThat(bulkApproval.apply(new BulkApproveRequest(TransactionStatus.APPROVED,
+                List.of(b.deposit1(), b.withdraw1()), null, null)).finalized()).isEqualTo(2);
+        assertThat(bulkApproval.apply(new BulkApproveRequest(TransactionStatus.DENIED,
+                List.of(b.deposit2(), b.withdraw2()), null, null)).finalized()).isEqualTo(2);
+
+        txService.approve(s.deposit1(), new ApproveRequest(TransactionStatus.APPROVED));
+        txService.approve(s.withdraw1(), new ApproveRequest(TransactionStatus.APPROVED));
+        txService.approve(s.deposit2(), new ApproveRequest(TransactionStatus.DENIED));
+        txService.approve(s.withdraw2(), new ApproveRequest(TransactionStatus.DENIED));
+
+        // 10000 + 1500 approved deposit - 1200 approved withdrawal; the denied pair leaves no trace
+        assertBalances(bulk, "10300.00", "10300.00");
+        assertBalances(single, "10300.00", "10300.00");
+    }
+
+    @Test
+    void bulk_by_wallet_filter_finalizes_every_pending_row_once() {
+        Long w = testWallets.create("10000.00");
+        pendingMix(w);
+
+        assertThat(bulkApproval.apply(new BulkApproveRequest(TransactionStatus.APPROVED, null, w, null))
+                .finalized()).isEqualTo(4);
+        // 10000 + 1500 + 2000 - 1200 - 3000
+        assertBalances(w, "9300.00", "9300.00");
+
+        assertThat(bulkApproval.apply(new BulkApproveRequest(TransactionStatus.DENIED, null, w, null))
+                .finalized()).isZero();
+        assertBalances(w, "9300.00", "9300.00");
+    }
+
+    @Test
+    void bulk_approved_transfer_moves_money_between_wallets() {
+        Long from = testWallets.create("5000.00");
+        Long to = testWallets.create();
+        var transfer = txService.transfer(new TransferRequest(from, to, new BigDecimal("1500.00")));
+        assertBalances(from, "5000.00", "3500.00");
+        assertBalances(to, "1500.00", "0.00");
+
+        // the credit leg is pulled in with the debit
+        assertThat(bulkApproval.apply(new BulkApproveRequest(TransactionStatus.APPROVED,
+                List.of(transfer.debit().id()), null, null)).finalized()).isEqualTo(2);
+
+        assertBalances(from, "3500.00", "3500.00");
+        assertBalances(to, "1500.00", "1500.00");
+    }
+
+    record Pending(Long deposit1, Long deposit2, Long withdraw1, Long withdraw2) {}
+
+    private Pending pendingMix(Long walletId) {
+        return new Pending(
+                txService.deposit(new DepositRequest(walletId, new BigDecimal("1500.00"), OppositePartyType.IBAN, "TR1")).id(),
+                txService.deposit(new DepositRequest(walletId, new BigDecimal("2000.00"), OppositePartyType.IBAN, "TR1")).id(),
+                txService.withdraw(new WithdrawRequest(walletId, new BigDecimal("1200.00"), OppositePartyType.IBAN, "TR2")).id(),
+                txService.withdraw(new WithdrawRequest(walletId, new BigDecimal("3000.00"), OppositePartyType.IBAN, "TR2")).id());
+    }
+
+    private void assertBalances(Long walletId, String balance, String usableBalance) {
+        Wallet w = wallets.findById(walletId).orElseThrow();
+        assertThat(w.getBalance()).isEqualByComparingTo(balance);
+        assertThat(w.getUsableBalance()).isEqualByComparingTo(usableBalance);
+    }
+}
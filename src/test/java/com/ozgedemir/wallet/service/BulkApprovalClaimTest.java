@@ -0,0 +1,96 @@
+package com.ozgedemir.wallet.service;
+
+import com.ozgedemir.wallet.domain.enums.OppositePartyType;
+import com.ozgedemir.wallet.domain.enums.TransactionStatus;
+import com.ozgedemir.wallet.domain.repos.TransactionRepository;
+import com.ozgedemir.wallet.domain.repos.WalletRepository;
+import com.ozgedemir.wallet.dto.tx.BulkApproveRequest;
+import com.ozgedemir.wallet.dto.tx.DepositRequest;
+import com.ozgedemir.wallet.dto.tx.TransferRequest;
+import org.junit.jupiter.api.AfterEach;
+import com.ozgedemir.wallet.support.TestWallets;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class BulkApprovalClaimTest {
+
+    @Autowired TestWallets testWallets;
+    @Autowired BulkApprovalService bulkApproval;
+    @Autowired TransactionService txService;
+    @Autowired TransactionRepository txs;
+    @Autowired WalletRepository wallets;
+    @Autowired TransactionTemplate txTemplate;
+
+    @AfterEach
+    void clearCaller() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void bulk_approval_skips_rows_leased_to_another_worker() {
+        Long w = testWallets.create();
+        Long leased = pendingDeposit(w);
+        Long free = pendingDeposit(w);
+        lease(leased, "worker-a");
+
+        actAs("worker-b");
+        var res = bulkApproval.apply(new BulkApproveRequest(TransactionStatus.APPROVED, null, w, null));
+
+        assertThat(res.finalized()).isEqualTo(1);
+        assertThat(status(free)).isEqualTo(TransactionStatus.APPROVED);
+        assertThat(status(leased)).isEqualTo(TransactionStatus.PENDING);
+        assertThat(wallets.findById(w).orElseThrow().getUsableBalance()).isEqualByComparingTo("1500.00");
+
+        // the lease holder itself may finalize it in bulk
+        actAs("worker-a");
+        assertThat(bulkApproval.apply(new BulkApproveRequest(TransactionStatus.APPROVED, List.of(leased), null, null))
+                .finalized()).isEqualTo(1);
+        assertThat(status(leased)).isEqualTo(TransactionStatus.APPROVED);
+    }
+
+    @Test
+    void transfer_leg_waits_for_its_leased_partner() {
+        Long a = testWallets.create();
+        Long b = testWallets.create();
+        txService.deposit(new DepositRequest(a, new BigDecimal("900.00"), OppositePartyType.IBAN, "TR1"));
+        txService.deposit(new DepositRequest(a, new BigDecimal("900.00"), OppositePartyType.IBAN, "TR1"));
+        var transfer = txService.transfer(new TransferRequest(a, b, new BigDecimal("1500.00")));
+        lease(transfer.credit().id(), "worker-a");
+
+        actAs("worker-b");
+        var res = bulkApproval.apply(new BulkApproveRequest(TransactionStatus.APPROVED,
+                List.of(transfer.debit().id()), null, null));
+
+        assertThat(res.finalized()).isZero();
+        assertThat(status(transfer.debit().id())).isEqualTo(TransactionStatus.PENDING);
+    }
+
+    private void lease(Long txId, String worker) {
+        txTemplate.executeWithoutResult(s -> txs.claim(List.of(txId), worker, Instant.now().plus(Duration.ofMinutes(5))));
+    }
+
+    private static void actAs(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+
+    private Long pendingDeposit(Long walletId) {
+        return txService.deposit(new DepositRequest(walletId, new BigDecimal("1500.00"), OppositePartyType.IBAN, "TR1")).id();
+    }
+
+    private TransactionStatus status(Long txId) {
+        return txs.findById(txId).orElseThrow().getStatus();
+    }
+}
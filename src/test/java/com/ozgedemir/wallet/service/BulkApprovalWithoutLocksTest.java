@@ -0,0 +1,8 @@
+package com.ozgedemir.wallet.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/** Same accounting with the in-process wallet locks off: the chunk relies on DB row locks alone. */
+@SpringBootTest(properties = "wallet.concurrency.in-process-locks=false")
+class BulkApprovalWithoutLocksTest extends BulkApprovalAccountingTest {
+}
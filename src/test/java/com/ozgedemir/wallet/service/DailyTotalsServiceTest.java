@@ -0,0 +1,132 @@
+package com.ozgedemir.wallet.service;
+
+import com.ozgedemir.wallet.domain.entities.WalletDailyTotal;
+import com.ozgedemir.wallet.domain.enums.OppositePartyType;
+import com.ozgedemir.wallet.domain.enums.TransactionStatus;
+import com.ozgedemir.wallet.domain.enums.TransactionType;
+import com.ozgedemir.wallet.domain.repos.TransactionRepository;
+import com.ozgedemir.wallet.domain.repos.WalletDailyTotalRepository;
+import com.ozgedemir.wallet.dto.tx.ApproveRequest;
+import com.ozgedemir.wallet.dto.tx.DepositRequest;
+import com.ozgedemir.wallet.dto.wallet.TotalsLine;
+import com.ozgedemir.wallet.support.TestWallets;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class DailyTotalsServiceTest {
+
+    @Autowired TestWallets testWallets;
+    @Autowired TransactionService txService;
+    @Autowired DailyTotalsService dailyTotals;
+    @Autowired WalletDailyTotalRepository totals;
+    @Autowired TransactionRepository txs;
+    @Autowired TransactionTemplate txTemplate;
+    @Autowired JdbcTemplate jdbc;
+
+    @Test
+    void writes_increment_the_rollup_and_reads_sum_the_stripes() {
+        Long walletId = testWallets.create();
+        for (int i = 0; i < 20; i++) deposit(walletId, "10");
+
+        assertTotals(today(walletId),
+                new TotalsLine(TransactionType.DEPOSIT, TransactionStatus.APPROVED, 20L, new BigDecimal("200.00")));
+        assertThat(rows(walletId)).hasSizeLessThanOrEqualTo(8);
+    }
+
+    @Test
+    void create_race_leaves_one_stripe_and_the_loser_still_adds() {
+        Long walletId = testWallets.create();
+        LocalDate day = LocalDate.now(ZoneOffset.UTC);
+
+        // both writers found no stripe to increment and both try to create it
+        int first = txTemplate.execute(s -> totals.create(walletId, day, "DEPOSIT", "APPROVED", 3));
+        int second = txTemplate.execute(s -> totals.create(walletId, day, "DEPOSIT", "APPROVED", 3));
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+
+        txTemplate.executeWithoutResult(s -> {
+            totals.add(walletId, day, "DEPOSIT", "APPROVED", 3, 1, new BigDecimal("5"));
+            totals.add(walletId, day, "DEPOSIT", "APPROVED", 3, 1, new BigDecimal("7"));
+        });
+
+        assertThat(rows(walletId)).singleElement().satisfies(r -> {
+            assertThat(r.getCount()).isEqualTo(2);
+            assertThat(r.getAmount()).isEqualByComparingTo("12");
+        });
+    }
+
+    @Test
+    void finalizing_moves_a_pending_transaction_to_its_status() {
+        Long walletId = testWallets.create();
+        Long approved = deposit(walletId, "1500");
+        Long denied = deposit(walletId, "2000");
+        deposit(walletId, "3000");
+        assertTotals(today(walletId),
+                new TotalsLine(TransactionType.DEPOSIT, TransactionStatus.PENDING, 3L, new BigDecimal("6500.00")));
+
+        txService.approve(approved, new ApproveRequest(TransactionStatus.APPROVED));
+        txService.approve(denied, new ApproveRequest(TransactionStatus.DENIED));
+
+        assertTotals(today(walletId),
+                new TotalsLine(TransactionType.DEPOSIT, TransactionStatus.APPROVED, 1L, new BigDecimal("1500.00")),
+                new TotalsLine(TransactionType.DEPOSIT, TransactionStatus.DENIED, 1L, new BigDecimal("2000.00")),
+                new TotalsLine(TransactionType.DEPOSIT, TransactionStatus.PENDING, 1L, new BigDecimal("3000.00")));
+    }
+
+    @Test
+    void backfill_rebuilds_the_same_totals_on_the_same_utc_day() throws Exception {
+        Long walletId = testWallets.create();
+        Long late = deposit(walletId, "10");
+        for (int i = 0; i < 5; i++) deposit(walletId, "20");
+
+        // late in the UTC day: a session or JVM zone east of UTC would put it on the next day
+        LocalDate day = LocalDate.of(2025, 3, 1);
+        jdbc.update("update transactions set created_at = ? where id = ?", day.atTime(23, 30), late);
+        jdbc.update("delete from wallet_daily_totals where wallet_id = ?", walletId);
+        txTemplate.executeWithoutResult(s -> dailyTotals.recordCreated(List.of(txs.findById(late).orElseThrow())));
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        txTemplate.executeWithoutResult(s -> dailyTotals.recordCreated(
+                txs.findAll().stream().filter(t -> t.getWallet().getId().equals(walletId) && !t.getId().equals(late)).toList()));
+        var live = dailyTotals.summary(walletId, day, today);
+        assertTotals(dailyTotals.summary(walletId, day, day).totals(),
+                new TotalsLine(TransactionType.DEPOSIT, TransactionStatus.APPROVED, 1L, new BigDecimal("10.00")));
+
+        jdbc.update("delete from wallet_daily_totals where wallet_id = ?", walletId);
+        new DailyTotalsBackfill(totals, wallets, txTemplate, 50, 2).rebuild();
+
+        assertThat(dailyTotals.summary(walletId, day, today)).isEqualTo(live);
+        assertTotals(dailyTotals.summary(walletId, day, day).totals(),
+                new TotalsLine(TransactionType.DEPOSIT, TransactionStatus.APPROVED, 1L, new BigDecimal("10.00")));
+        assertThat(rows(walletId)).allSatisfy(r -> assertThat(r.getStripe()).isZero());
+    }
+
+    private static void assertTotals(List<TotalsLine> actual, TotalsLine... expected) {
+        assertThat(actual).usingRecursiveComparison()
+                .withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                .isEqualTo(List.of(expected));
+    }
+
+    private List<TotalsLine> today(Long walletId) {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        return dailyTotals.summary(walletId, today, today).totals();
+    }
+
+    private List<WalletDailyTotal> rows(Long walletId) {
+        return totals.findAll().stream().filter(r -> r.getWalletId().equals(walletId)).toList();
+    }
+
+    private Long deposit(Long walletId, String amount) {
+        return txService.deposit(new DepositRequest(walletId, new BigDecimal(amount), OppositePartyType.IBAN, "TR1")).id();
+    }
+}
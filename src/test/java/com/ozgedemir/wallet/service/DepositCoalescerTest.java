@@ -0,0 +1,114 @@
+package com.ozgedemir.wallet.service;
+
+import com.ozgedemir.wallet.domain.enums.OppositePartyType;
+import com.ozgedemir.wallet.domain.enums.TransactionStatus;
+import com.ozgedemir.wallet.domain.enums.TransactionType;
+import com.ozgedemir.wallet.dto.tx.DepositRequest;
+import com.ozgedemir.wallet.dto.tx.TransactionResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DepositCoalescerTest {
+
+    static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    TransactionService txService = mock(TransactionService.class);
+
+    @Test
+    void concurrent_small_deposits_to_one_wallet_commit_as_one_group() throws Exception {
+        when(txService.depositAll(any())).thenAnswer(inv -> {
+            DepositGroup g = inv.getArgument(0);
+            return g.deposits().stream().map(r -> response(r.amount())).toList();
+        });
+        DepositCoalescer coalescer = new DepositCoalescer(txService, new SimpleMeterRegistry(), true, 200, 100, 100, 2, TIMEOUT);
+
+        ExecutorService callers = Executors.newFixedThreadPool(3);
+        List<Future<TransactionResponse>> results = callers.invokeAll(List.of(
+                () -> coalescer.deposit(request("1")),
+                () -> coalescer.deposit(request("2")),
+                () -> coalescer.deposit(request("3"))));
+
+        assertThat(results).extracting(f -> f.get().amount().intValue()).containsExactlyInAnyOrder(1, 2, 3);
+        verify(txService, times(1)).depositAll(any());
+        verify(txService, never()).deposit(any());
+        callers.shutdown();
+    }
+
+    @Test
+    void rejects_when_too_many_deposits_are_waiting() throws Exception {
+        CountDownLatch committing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(txService.depositAll(any())).thenAnswer(inv -> {
+            committing.countDown();
+            release.await();
+            return List.of(response(BigDecimal.ONE));
+        });
+        DepositCoalescer coalescer = new DepositCoalescer(txService, new SimpleMeterRegistry(), true, 0, 100, 1, 1, TIMEOUT);
+
+        CompletableFuture<TransactionResponse> first = CompletableFuture.supplyAsync(() -> coalescer.deposit(request("1")));
+        assertThat(committing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> coalescer.deposit(request("2"))).isInstanceOf(RejectedExecutionException.class);
+        release.countDown();
+        assertThat(first.join().amount()).isEqualByComparingTo("1");
+    }
+
+    @Test
+    void an_error_while_committing_fails_every_caller_of_the_group() throws Exception {
+        when(txService.depositAll(any())).thenThrow(new StackOverflowError());
+        DepositCoalescer coalescer = new DepositCoalescer(txService, new SimpleMeterRegistry(), true, 200, 100, 100, 1, TIMEOUT);
+
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        List<Future<TransactionResponse>> results = callers.invokeAll(List.of(
+                () -> coalescer.deposit(request("1")),
+                () -> coalescer.deposit(request("2"))), 10, TimeUnit.SECONDS);
+
+        for (Future<TransactionResponse> f : results) {
+            assertThatThrownBy(f::get).hasCauseInstanceOf(StackOverflowError.class);
+        }
+        callers.shutdown();
+    }
+
+    @Test
+    void deposits_after_shutdown_fail_instead_of_waiting() {
+        DepositCoalescer coalescer = new DepositCoalescer(txService, new SimpleMeterRegistry(), true, 2, 100, 100, 1, TIMEOUT);
+        coalescer.shutdown();
+
+        assertThatThrownBy(() -> coalescer.deposit(request("1"))).isInstanceOf(RejectedExecutionException.class);
+        verify(txService, never()).depositAll(any());
+    }
+
+    @Test
+    void a_caller_stops_waiting_after_the_timeout() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(txService.depositAll(any())).thenAnswer(inv -> {
+            release.await();
+            return List.of(response(BigDecimal.ONE));
+        });
+        DepositCoalescer coalescer = new DepositCoalescer(txService, new SimpleMeterRegistry(), true, 0, 100, 100, 1,
+                Duration.ofMillis(100));
+
+        assertThatThrownBy(() -> coalescer.deposit(request("1")))
+                .isInstanceOf(DepositOutcomeUnknownException.class)
+                .hasMessageContaining("outcome is unknown");
+        release.countDown();
+    }
+
+    private static DepositRequest request(String amount) {
+        return new DepositRequest(1L, new BigDecimal(amount), OppositePartyType.IBAN, "TR0001");
+    }
+
+    private static TransactionResponse response(BigDecimal amount) {
+        return new TransactionResponse(1L, 1L, amount, TransactionType.DEPOSIT, OppositePartyType.IBAN,
+                "TR0001", TransactionStatus.APPROVED, Instant.now());
+    }
+}
@@ -0,0 +1,74 @@
+package com.ozgedemir.wallet.service;
+
+import com.ozgedemir.wallet.domain.enums.OppositePartyType;
+import com.ozgedemir.wallet.domain.enums.TransactionStatus;
+import com.ozgedemir.wallet.domain.enums.TransactionType;
+import com.ozgedemir.wallet.dto.tx.TransactionResponse;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HistoryMergeTest {
+
+    static final Instant T0 = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Test
+    void interleaves_both_tables_oldest_first() {
+        var hot = List.of(tx(2, 20), tx(4, 40));
+        var archived = List.of(tx(1, 10), tx(3, 30), tx(5, 50));
+
+        assertThat(ids(HistoryMerge.merge(hot, archived, HistoryMerge.OLDEST_FIRST, 10))).containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    void interleaves_both_tables_newest_first_and_stops_at_the_limit() {
+        var hot = List.of(tx(4, 40), tx(2, 20));
+        var archived = List.of(tx(5, 50), tx(3, 30), tx(1, 10));
+
+        assertThat(ids(HistoryMerge.merge(hot, archived, HistoryMerge.NEWEST_FIRST, 3))).containsExactly(5L, 4L, 3L);
+    }
+
+    @Test
+    void same_time_is_ordered_by_id_across_tables() {
+        var hot = List.of(tx(7, 10), tx(9, 10));
+        var archived = List.of(tx(8, 10));
+
+        assertThat(ids(HistoryMerge.merge(hot, archived, HistoryMerge.OLDEST_FIRST, 10))).containsExactly(7L, 8L, 9L);
+    }
+
+    @Test
+    void row_caught_mid_move_is_returned_once() {
+        // row 2 was read from the hot table, then archived before the archive was read
+        var hot = List.of(tx(2, 20), tx(3, 30));
+        var archived = List.of(tx(1, 10), tx(2, 20));
+
+        assertThat(ids(HistoryMerge.merge(hot, archived, HistoryMerge.OLDEST_FIRST, 10))).containsExactly(1L, 2L, 3L);
+
+        var it = HistoryMerge.merge(List.of(tx(3, 30), tx(2, 20)).iterator(), List.of(tx(2, 20), tx(1, 10)).iterator(),
+                HistoryMerge.NEWEST_FIRST);
+        List<TransactionResponse> streamed = new ArrayList<>();
+        it.forEachRemaining(streamed::add);
+        assertThat(ids(streamed)).containsExactly(3L, 2L, 1L);
+    }
+
+    @Test
+    void either_side_may_be_empty() {
+        assertThat(ids(HistoryMerge.merge(List.of(), List.of(tx(1, 10)), HistoryMerge.OLDEST_FIRST, 10))).containsExactly(1L);
+        assertThat(ids(HistoryMerge.merge(List.of(tx(1, 10)), List.of(), HistoryMerge.OLDEST_FIRST, 10))).containsExactly(1L);
+        assertThat(HistoryMerge.merge(List.of(), List.of(), HistoryMerge.OLDEST_FIRST, 10)).isEmpty();
+    }
+
+    private static List<Long> ids(List<TransactionResponse> rows) {
+        return rows.stream().map(TransactionResponse::id).toList();
+    }
+
+    private static TransactionResponse tx(long id, long second) {
+        return new TransactionResponse(id, 1L, BigDecimal.TEN, TransactionType.DEPOSIT, OppositePartyType.IBAN,
+                "TR1", TransactionStatus.APPROVED, T0.plusSeconds(second));
+    }
+}
@@ -0,0 +1,164 @@
+package com.ozgedemir.wallet.service;
+
+import com.ozgedemir.wallet.domain.entities.IdempotentRequest;
+import com.ozgedemir.wallet.domain.repos.IdempotentRequestRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class IdempotencyServiceTest {
+
+    static final String ENDPOINT = "POST /test";
+
+    @Autowired IdempotencyService idempotency;
+    @Autowired IdempotentRequestRepository requests;
+
+    final AtomicInteger runs = new AtomicInteger();
+    String key;
+
+    @BeforeEach
+    void setUp() {
+        key = UUID.randomUUID().toString();
+        login("alice");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void repeat_is_replayed_without_running_again() {
+        ResponseEntity<String> first = execute(Map.of("amount", 10));
+        ResponseEntity<String> second = execute(Map.of("amount", 10));
+
+        assertThat(runs).hasValue(1);
+        assertThat(second.getStatusCode().value()).isEqualTo(201);
+        assertThat(second.getBody()).isEqualTo(first.getBody());
+        assertThat(second.getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("true");
+    }
+
+    @Test
+    void same_key_with_another_body_is_a_conflict() {
+        execute(Map.of("amount", 10));
+
+        assertThatThrownBy(() -> execute(Map.of("amount", 20)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("different request");
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void keys_are_scoped_per_caller() {
+        execute(Map.of("amount", 10));
+        login("bob");
+        ResponseEntity<String> bobs = execute(Map.of("amount", 10));
+
+        assertThat(runs).hasValue(2);
+        assertThat(bobs.getHeaders().containsKey("Idempotent-Replayed")).isFalse();
+    }
+
+    @Test
+    void concurrent_duplicate_gets_409_while_the_first_runs() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<ResponseEntity<String>> first = pool.submit(() -> {
+                login("alice");
+                return idempotency.execute(key, ENDPOINT, Map.of("amount", 10), String.class, () -> {
+                    runs.incrementAndGet();
+                    running.countDown();
+                    await(release);
+                    return ResponseEntity.status(201).body("done");
+                });
+            });
+            assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> execute(Map.of("amount", 10)))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("still being processed");
+
+            release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS).getBody()).isEqualTo("done");
+            assertThat(execute(Map.of("amount", 10)).getBody()).isEqualTo("done");
+            assertThat(runs).hasValue(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void failed_request_releases_the_key_for_a_retry() {
+        assertThatThrownBy(() -> idempotency.execute(key, ENDPOINT, Map.of("amount", 10), String.class, () -> {
+            throw new IllegalArgumentException("boom");
+        })).hasMessage("boom");
+        assertThatThrownBy(() -> idempotency.execute(key, ENDPOINT, Map.of("amount", 10), String.class, () -> {
+            throw new AssertionError("not a RuntimeException");
+        })).isInstanceOf(AssertionError.class);
+
+        assertThat(execute(Map.of("amount", 10)).getBody()).isEqualTo("ok");
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void stale_claim_of_a_crashed_request_is_taken_over() {
+        // what a process that died mid-request leaves behind
+        IdempotentRequest orphan = new IdempotentRequest();
+        orphan.setCaller("alice");
+        orphan.setIdempotencyKey(key);
+        orphan.setEndpoint(ENDPOINT);
+        orphan.setRequestHash(hashOf(Map.of("amount", 10)));
+        orphan.setClaimedUntil(Instant.now().minusSeconds(1));
+        requests.saveAndFlush(orphan);
+
+        assertThatThrownBy(() -> execute(Map.of("amount", 20)))
+                .hasMessageContaining("different request");
+        assertThat(execute(Map.of("amount", 10)).getBody()).isEqualTo("ok");
+        assertThat(requests.findByCallerAndIdempotencyKeyAndEndpoint("alice", key, ENDPOINT))
+                .hasValueSatisfying(r -> {
+                    assertThat(r.getResponseStatus()).isEqualTo(201);
+                    assertThat(r.getClaimedUntil()).isNull();
+                });
+    }
+
+    private ResponseEntity<String> execute(Object body) {
+        return idempotency.execute(key, ENDPOINT, body, String.class, () -> {
+            runs.incrementAndGet();
+            return ResponseEntity.status(201).body("ok");
+        });
+    }
+
+    // the hash a completed run stored for this body
+    private String hashOf(Object body) {
+        String probe = UUID.randomUUID().toString();
+        idempotency.execute(probe, ENDPOINT, body, String.class, () -> ResponseEntity.ok("probe"));
+        return requests.findByCallerAndIdempotencyKeyAndEndpoint("alice", probe, ENDPOINT).orElseThrow().getRequestHash();
+    }
+
+    private static void login(String user) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(user, null, "ROLE_CUSTOMER"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
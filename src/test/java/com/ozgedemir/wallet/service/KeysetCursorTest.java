@@ -0,0 +1,46 @@
+package com.ozgedemir.wallet.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.*;
+
+class KeysetCursorTest {
+
+    @Test
+    void position_survives_a_round_trip_to_the_nanosecond() {
+        Instant at = Instant.parse("2025-03-01T23:59:59.123456789Z");
+
+        String token = KeysetCursor.encode(at, 42L);
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");    // url-safe, no padding
+        assertThat(KeysetCursor.decode(token)).isEqualTo(new KeysetCursor.Position(at, 42L));
+        assertThat(KeysetCursor.decodeId(KeysetCursor.encode(42L))).isEqualTo(42L);
+    }
+
+    @Test
+    void malformed_or_tampered_tokens_are_rejected_as_invalid() {
+        assertThat(new String[]{
+                "not base64!",
+                raw("1740873599.5"),                 // no id
+                raw("1740873599:5"),                 // no nanos
+                raw("5:1740873599.5"),               // parts swapped
+                raw("1740873599.x:5"),
+                raw("1740873599.5:"),
+                raw("99999999999999999.0:5"),        // out of Instant's range
+        }).allSatisfy(token -> assertThatThrownBy(() -> KeysetCursor.decode(token))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor"));
+
+        assertThatThrownBy(() -> KeysetCursor.decodeId(raw("12a")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    private static String raw(String s) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(s.getBytes(StandardCharsets.US_ASCII));
+    }
+}
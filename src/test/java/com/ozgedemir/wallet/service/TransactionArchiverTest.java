@@ -0,0 +1,72 @@
+package com.ozgedemir.wallet.service;
+
+import com.ozgedemir.wallet.domain.enums.OppositePartyType;
+import com.ozgedemir.wallet.domain.repos.ArchivedTransactionRepository;
+import com.ozgedemir.wallet.domain.repos.TransactionRepository;
+import com.ozgedemir.wallet.dto.tx.DepositRequest;
+import com.ozgedemir.wallet.dto.tx.TransactionResponse;
+import com.ozgedemir.wallet.support.TestWallets;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class TransactionArchiverTest {
+
+    static final int ROWS = 30;
+
+    @Autowired TestWallets testWallets;
+    @Autowired TransactionService txService;
+    @Autowired ArchivedTransactionRepository archive;
+    @Autowired TransactionRepository txs;
+    @Autowired TransactionTemplate txTemplate;
+    @Autowired JdbcTemplate jdbc;
+
+    @Test
+    void history_stays_complete_while_the_archiver_moves_it() {
+        Long walletId = testWallets.create();
+        Instant base = Instant.now().minus(Duration.ofDays(200));
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Long id = txService.deposit(new DepositRequest(walletId, BigDecimal.TEN, OppositePartyType.IBAN, "TR1")).id();
+            // old enough to archive, one second apart
+            jdbc.update("update transactions set created_at = ? where id = ?", LocalDateTime.ofInstant(base.plusSeconds(i), ZoneOffset.UTC), id);
+            expected.add(id);
+        }
+        List<Long> newestFirst = expected.reversed();
+
+        // one row per batch, so reads land between many batches
+        var archiver = new TransactionArchiver(archive, txTemplate, true, Duration.ofDays(90), 1, ROWS + 1);
+        CompletableFuture<Void> moving = CompletableFuture.runAsync(archiver::run);
+
+        int reads = 0;
+        do {
+            assertThat(ids(txService.list(walletId, PageRequest.of(0, 50)).getContent())).containsExactlyElementsOf(newestFirst);
+            assertThat(ids(txService.scroll(walletId, null, 50).items())).containsExactlyElementsOf(newestFirst);
+            reads++;
+        } while (!moving.isDone() || reads < 3);
+        moving.join();
+
+        assertThat(txs.countByWalletId(walletId)).isZero();
+        assertThat(archive.findAll()).filteredOn(a -> a.getWalletId().equals(walletId)).hasSize(ROWS);
+        assertThat(ids(txService.list(walletId, PageRequest.of(0, 50)).getContent())).containsExactlyElementsOf(newestFirst);
+    }
+
+    private static List<Long> ids(List<TransactionResponse> rows) {
+        return rows.stream().map(TransactionResponse::id).toList();
+    }
+}
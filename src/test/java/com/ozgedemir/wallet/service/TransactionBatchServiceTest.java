@@ -0,0 +1,68 @@
+package com.ozgedemir.wallet.service;
+
+import com.ozgedemir.wallet.domain.entities.Wallet;
+import com.ozgedemir.wallet.domain.enums.OppositePartyType;
+import com.ozgedemir.wallet.domain.enums.TransactionStatus;
+import com.ozgedemir.wallet.domain.enums.TransactionType;
+import com.ozgedemir.wallet.domain.repos.TransactionRepository;
+import com.ozgedemir.wallet.domain.repos.WalletRepository;
+import com.ozgedemir.wallet.dto.tx.BatchItem;
+import com.ozgedemir.wallet.dto.tx.BatchItemResult;
+import com.ozgedemir.wallet.dto.tx.BatchRequest;
+import com.ozgedemir.wallet.dto.tx.BatchResponse;
+import com.ozgedemir.wallet.support.TestWallets;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+// chunks of two, so the items span several DB transactions
+@SpringBootTest(properties = "wallet.batch.chunk-size=2")
+class TransactionBatchServiceTest {
+
+    @Autowired TestWallets testWallets;
+    @Autowired TransactionBatchService batches;
+    @Autowired TransactionRepository txs;
+    @Autowired WalletRepository wallets;
+
+    @Test
+    void items_succeed_or_fail_on_their_own_across_chunks() {
+        Long a = testWallets.create("100.00");
+        Long b = testWallets.create();
+
+        BatchResponse res = batches.apply(new BatchRequest(List.of(
+                item(TransactionType.DEPOSIT, a, "50.00"),
+                item(TransactionType.WITHDRAW, a, "120.00"),
+                item(TransactionType.WITHDRAW, a, "100.00"),      // only 30 left
+                item(TransactionType.DEPOSIT, b, "2000.00"),      // over the threshold: PENDING
+                item(TransactionType.DEPOSIT, -1L, "10.00"),
+                item(TransactionType.WITHDRAW, b, "10.00"))));    // pending money isn't usable
+
+        assertThat(res.succeeded()).isEqualTo(3);
+        assertThat(res.failed()).isEqualTo(3);
+        assertThat(res.results()).extracting(BatchItemResult::index).containsExactly(0, 1, 2, 3, 4, 5);
+        assertThat(res.results()).extracting(BatchItemResult::success).containsExactly(true, true, false, true, false, false);
+        assertThat(res.results().get(2).error()).isEqualTo("Insufficient usable balance");
+        assertThat(res.results().get(4).error()).isEqualTo("Wallet not found");
+        assertThat(res.results().get(3).transaction().status()).isEqualTo(TransactionStatus.PENDING);
+
+        // every created transaction was inserted under its own fresh id
+        List<Long> ids = res.results().stream().filter(BatchItemResult::success).map(r -> r.transaction().id()).toList();
+        assertThat(ids).doesNotHaveDuplicates().allSatisfy(id -> assertThat(txs.existsById(id)).isTrue());
+
+        Wallet wa = wallets.findById(a).orElseThrow();
+        assertThat(wa.getBalance()).isEqualByComparingTo("30.00");
+        assertThat(wa.getUsableBalance()).isEqualByComparingTo("30.00");
+        Wallet wb = wallets.findById(b).orElseThrow();
+        assertThat(wb.getBalance()).isEqualByComparingTo("2000.00");
+        assertThat(wb.getUsableBalance()).isEqualByComparingTo("0.00");
+    }
+
+    private static BatchItem item(TransactionType type, Long walletId, String amount) {
+        return new BatchItem(type, walletId, new BigDecimal(amount), OppositePartyType.IBAN, "TR1");
+    }
+}
@@ -0,0 +1,70 @@
+package com.ozgedemir.wallet.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ozgedemir.wallet.domain.enums.OppositePartyType;
+import com.ozgedemir.wallet.domain.enums.TransactionStatus;
+import com.ozgedemir.wallet.domain.enums.TransactionType;
+import com.ozgedemir.wallet.domain.repos.ArchivedTransactionRepository;
+import com.ozgedemir.wallet.domain.repos.TransactionRepository;
+import com.ozgedemir.wallet.domain.repos.WalletRepository;
+import com.ozgedemir.wallet.dto.tx.ExportFormat;
+import com.ozgedemir.wallet.dto.tx.TransactionResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TransactionExportServiceTest {
+
+    TransactionRepository txs = mock(TransactionRepository.class);
+    ArchivedTransactionRepository archive = mock(ArchivedTransactionRepository.class);
+    WalletRepository wallets = mock(WalletRepository.class);
+    TransactionExportService service = new TransactionExportService(txs, archive, wallets, new ObjectMapper(), 1000);
+
+    @Test
+    void csv_neutralises_cells_a_spreadsheet_would_evaluate() throws Exception {
+        when(txs.streamByWalletId(1L)).thenReturn(Stream.of(row(1L, "=HYPERLINK(\"http://x\",\"y\")")));
+        when(archive.streamByWalletId(1L)).thenReturn(Stream.empty());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.export(1L, ExportFormat.CSV, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).endsWith(
+                ",IBAN,\"'=HYPERLINK(\"\"http://x\"\",\"\"y\"\")\",PENDING,1970-01-01T00:00:00Z\n");
+        assertThat(TransactionExportService.csvField("+1")).isEqualTo("\"'+1\"");
+        assertThat(TransactionExportService.csvField("-1")).isEqualTo("\"'-1\"");
+        assertThat(TransactionExportService.csvField("@SUM(A1)")).isEqualTo("\"'@SUM(A1)\"");
+        assertThat(TransactionExportService.csvField("\tTR1")).isEqualTo("\"'\tTR1\"");
+        assertThat(TransactionExportService.csvField("\rTR1")).isEqualTo("\"'\rTR1\"");
+    }
+
+    @Test
+    void csv_leaves_plain_values_alone_and_quotes_separators() {
+        assertThat(TransactionExportService.csvField("TR1")).isEqualTo("TR1");
+        assertThat(TransactionExportService.csvField("TR-1")).isEqualTo("TR-1");
+        assertThat(TransactionExportService.csvField("a,b")).isEqualTo("\"a,b\"");
+        assertThat(TransactionExportService.csvField("")).isEmpty();
+        assertThat(TransactionExportService.csvField(null)).isEmpty();
+    }
+
+    @Test
+    void export_leaves_the_wallet_check_to_the_caller() throws Exception {
+        when(txs.streamByWalletId(1L)).thenReturn(Stream.empty());
+        when(archive.streamByWalletId(1L)).thenReturn(Stream.empty());
+
+        service.export(1L, ExportFormat.NDJSON, new ByteArrayOutputStream());
+
+        verifyNoInteractions(wallets);
+    }
+
+    private static TransactionResponse row(Long id, String oppositeParty) {
+        return new TransactionResponse(id, 1L, new BigDecimal("10.00"), TransactionType.DEPOSIT,
+                OppositePartyType.IBAN, oppositeParty, TransactionStatus.PENDING, Instant.EPOCH);
+    }
+}
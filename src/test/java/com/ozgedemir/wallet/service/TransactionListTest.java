@@ -0,0 +1,63 @@
+package com.ozgedemir.wallet.service;
+
+import com.ozgedemir.wallet.domain.enums.OppositePartyType;
+import com.ozgedemir.wallet.dto.tx.DepositRequest;
+import com.ozgedemir.wallet.dto.tx.TransactionResponse;
+import com.ozgedemir.wallet.support.TestWallets;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class TransactionListTest {
+
+    static final int ARCHIVED = 2 * TransactionService.OFFSET_STEP + 500;
+    static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Autowired TestWallets testWallets;
+    @Autowired TransactionService txService;
+    @Autowired JdbcTemplate jdbc;
+
+    @Test
+    void offset_pages_past_several_steps_continue_the_same_history() {
+        Long walletId = testWallets.create();
+        // ids far above anything the sequence hands out
+        long base = 8_000_000_000L + walletId * 10_000;
+        jdbc.batchUpdate("insert into transactions_archive(id, wallet_id, amount, type, opposite_party_type, " +
+                        "opposite_party, status, created_at) values (?, ?, 10.00, 'DEPOSIT', 'IBAN', 'TR1', 'APPROVED', ?)",
+                LongStream.range(0, ARCHIVED).mapToObj(i -> new Object[]{base + i, walletId, T0.plusSeconds(i)}).toList());
+        List<Long> hot = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            hot.add(txService.deposit(new DepositRequest(walletId, BigDecimal.TEN, OppositePartyType.IBAN, "TR1")).id());
+        }
+
+        // newest first: the three hot rows, then the archive from its newest row down
+        List<Long> newestFirst = new ArrayList<>(hot.reversed());
+        LongStream.range(0, ARCHIVED).map(i -> base + ARCHIVED - 1 - i).forEach(newestFirst::add);
+
+        int size = 150;
+        for (int page : new int[]{0, 6, 7, 13, 16}) {
+            Page<TransactionResponse> p = txService.list(walletId, PageRequest.of(page, size));
+            int from = page * size;
+            assertThat(ids(p.getContent())).as("page %d", page)
+                    .containsExactlyElementsOf(newestFirst.subList(from, Math.min(from + size, newestFirst.size())));
+            assertThat(p.getTotalElements()).isEqualTo(newestFirst.size());
+        }
+        assertThat(txService.list(walletId, PageRequest.of(100, size)).getContent()).isEmpty();
+    }
+
+    private static List<Long> ids(List<TransactionResponse> rows) {
+        return rows.stream().map(TransactionResponse::id).toList();
+    }
+}
@@ -0,0 +1,86 @@
+package com.ozgedemir.wallet.service;
+
+import com.ozgedemir.wallet.domain.enums.OppositePartyType;
+import com.ozgedemir.wallet.dto.CursorPage;
+import com.ozgedemir.wallet.dto.tx.DepositRequest;
+import com.ozgedemir.wallet.dto.tx.TransactionResponse;
+import com.ozgedemir.wallet.support.TestWallets;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class TransactionScrollTest {
+
+    static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @Autowired TestWallets testWallets;
+    @Autowired TransactionService txService;
+    @Autowired JdbcTemplate jdbc;
+
+    @Test
+    void pages_walk_the_history_once_with_ties_broken_by_id() {
+        Long walletId = testWallets.create();
+        List<Long> newestFirst = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            Long id = deposit(walletId);
+            // three timestamps for seven rows, so pages end in the middle of a tie
+            jdbc.update("update transactions set created_at = ? where id = ?", T0.plusMinutes(i / 3), id);
+            newestFirst.add(id);
+        }
+        // ids ascend within each timestamp, so reversing insertion order is (createdAt, id) descending
+        Collections.reverse(newestFirst);
+
+        List<Long> seen = new ArrayList<>();
+        CursorPage<TransactionResponse> page = txService.scroll(walletId, null, 3);
+        seen.addAll(ids(page));
+        // a row written between pages is newer than the cursor and doesn't shift the next pages
+        deposit(walletId);
+        while (page.next() != null) {
+            page = txService.scroll(walletId, page.next(), 3);
+            assertThat(page.items()).hasSizeLessThanOrEqualTo(3);
+            seen.addAll(ids(page));
+        }
+
+        assertThat(seen).containsExactlyElementsOf(newestFirst);
+    }
+
+    @Test
+    void last_full_page_has_no_next_cursor_only_when_nothing_follows() {
+        Long walletId = testWallets.create();
+        for (int i = 0; i < 4; i++) deposit(walletId);
+
+        CursorPage<TransactionResponse> first = txService.scroll(walletId, null, 2);
+        CursorPage<TransactionResponse> second = txService.scroll(walletId, first.next(), 2);
+
+        assertThat(first.next()).isNotNull();
+        assertThat(second.items()).hasSize(2);
+        assertThat(second.next()).isNull();
+    }
+
+    @Test
+    void invalid_cursor_is_a_bad_request() {
+        Long walletId = testWallets.create();
+
+        assertThatThrownBy(() -> txService.scroll(walletId, "garbage!", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    private Long deposit(Long walletId) {
+        return txService.deposit(new DepositRequest(walletId, BigDecimal.TEN, OppositePartyType.IBAN, "TR1")).id();
+    }
+
+    private static List<Long> ids(CursorPage<TransactionResponse> page) {
+        return page.items().stream().map(TransactionResponse::id).toList();
+    }
+}
@@ -1,20 +1,30 @@
 package com.ozgedemir.wallet.service;
 
+import com.ozgedemir.wallet.balance.DirectBalanceStore;
+import com.ozgedemir.wallet.balance.InsufficientBalanceException;
+import com.ozgedemir.wallet.balance.UpdateStrategy;
 import com.ozgedemir.wallet.domain.entities.Transaction;
 import com.ozgedemir.wallet.domain.entities.Wallet;
 import com.ozgedemir.wallet.domain.enums.OppositePartyType;
 import com.ozgedemir.wallet.domain.enums.TransactionStatus;
 import com.ozgedemir.wallet.domain.enums.TransactionType;
+import com.ozgedemir.wallet.domain.repos.ArchivedTransactionRepository;
+import com.ozgedemir.wallet.domain.repos.LedgerEntryRepository;
 import com.ozgedemir.wallet.domain.repos.TransactionRepository;
 import com.ozgedemir.wallet.domain.repos.WalletRepository;
 import com.ozgedemir.wallet.dto.tx.ApproveRequest;
 import com.ozgedemir.wallet.dto.tx.DepositRequest;
+import com.ozgedemir.wallet.dto.tx.TransactionResponse;
 import com.ozgedemir.wallet.dto.tx.WithdrawRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -24,7 +34,12 @@ class TransactionServiceTest {
 
     WalletRepository wallets = mock(WalletRepository.class);
     TransactionRepository txs = mock(TransactionRepository.class);
-    TransactionService service = new TransactionService(wallets, txs);
+    ArchivedTransactionRepository archive = mock(ArchivedTransactionRepository.class);
+    DailyTotalsService dailyTotals = mock(DailyTotalsService.class);
+    DirectBalanceStore balances = spy(new DirectBalanceStore(wallets, mock(LedgerEntryRepository.class), null, null,
+            UpdateStrategy.OPTIMISTIC));
+    TransactionService service = new TransactionService(wallets, txs, archive, balances,
+            dailyTotals, new SimpleMeterRegistry());
 
     Wallet wallet;
 
@@ -64,6 +79,22 @@ class TransactionServiceTest {
         assertThat(wallet.getUsableBalance()).isEqualByComparingTo("0");
     }
 
+    @Test
+    void deposit_group_updates_the_balances_once_with_the_sum() {
+        when(txs.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+        var group = new DepositGroup(1L, List.of(
+                new DepositRequest(1L, new BigDecimal("100"), OppositePartyType.IBAN, "TR1"),
+                new DepositRequest(1L, new BigDecimal("200"), OppositePartyType.IBAN, "TR2"),
+                new DepositRequest(1L, new BigDecimal("300"), OppositePartyType.IBAN, "TR3")));
+
+        var res = service.depositAll(group);
+
+        assertThat(res).extracting(TransactionResponse::status).containsOnly(TransactionStatus.APPROVED);
+        verify(balances, times(1)).apply(wallet, new BigDecimal("600"), new BigDecimal("600"));
+        assertThat(wallet.getBalance()).isEqualByComparingTo("600");
+        assertThat(wallet.getUsableBalance()).isEqualByComparingTo("600");
+    }
+
     @Test
     void withdraw_under_threshold_isApproved_and_deducts_from_both_balances() {
         wallet.setBalance(new BigDecimal("1000"));
@@ -103,6 +134,20 @@ class TransactionServiceTest {
 
 
 
+    @Test
+    void atomic_withdraw_lets_the_conditional_update_decide_without_reading_the_balance() {
+        DirectBalanceStore atomic = spy(new DirectBalanceStore(wallets, mock(LedgerEntryRepository.class), null, null,
+                UpdateStrategy.ATOMIC));
+        TransactionService atomicService = new TransactionService(wallets, txs, archive, atomic,
+                dailyTotals, new SimpleMeterRegistry());
+        when(wallets.addIfCovered(eq(1L), any(), any())).thenReturn(0);
+
+        assertThatThrownBy(() -> atomicService.withdraw(new WithdrawRequest(1L, new BigDecimal("50"), OppositePartyType.IBAN, "TR1")))
+                .isInstanceOf(InsufficientBalanceException.class);
+        verify(atomic, never()).usableBalance(any());
+        verify(txs, never()).save(any());
+    }
+
     @Test
     void approve_pending_deposit_moves_amount_to_usableBalance() {
         // pending deposit senaryosu
@@ -122,6 +167,7 @@ class TransactionServiceTest {
         assertThat(res.status()).isEqualTo(TransactionStatus.APPROVED);
         assertThat(wallet.getUsableBalance()).isEqualByComparingTo("1200"); // usable eklendi
         assertThat(wallet.getBalance()).isEqualByComparingTo("1200");       // zaten ekliydi
+        verify(dailyTotals).recordFinalized(tx, TransactionStatus.APPROVED);
     }
 
     @Test
@@ -144,4 +190,60 @@ class TransactionServiceTest {
         assertThat(wallet.getUsableBalance()).isEqualByComparingTo("5000"); // geri koyuldu
         assertThat(wallet.getBalance()).isEqualByComparingTo("5000");       // değişmedi
     }
+
+    @Test
+    void approve_transfer_is_refused_while_the_other_leg_is_claimed_by_another_worker() {
+        Wallet other = walletWithId(2L, "5000", "3500");
+        Transaction debit = pendingLeg(20L, other, TransactionType.WITHDRAW, "1500");
+        Transaction credit = pendingLeg(21L, wallet, TransactionType.DEPOSIT, "1500");
+        debit.setRelatedTransactionId(21L);
+        credit.setClaimedBy("worker-a");
+        credit.setClaimExpiresAt(Instant.now().plusSeconds(300));
+        when(txs.findById(20L)).thenReturn(Optional.of(debit));
+        when(txs.findById(21L)).thenReturn(Optional.of(credit));
+
+        assertThatThrownBy(() -> service.approve(20L, new ApproveRequest(TransactionStatus.APPROVED)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("claimed by another worker");
+        verify(balances, never()).apply(any(), any(), any());
+        assertThat(debit.getStatus()).isEqualTo(TransactionStatus.PENDING);
+    }
+
+    @Test
+    void approve_transfer_writes_the_lower_wallet_id_first() {
+        // the debit sits on the higher wallet id, so it is approved second
+        Wallet other = walletWithId(2L, "5000", "3500");
+        wallet.setBalance(new BigDecimal("1500"));
+        Transaction debit = pendingLeg(20L, other, TransactionType.WITHDRAW, "1500");
+        Transaction credit = pendingLeg(21L, wallet, TransactionType.DEPOSIT, "1500");
+        debit.setRelatedTransactionId(21L);
+        when(txs.findById(20L)).thenReturn(Optional.of(debit));
+        when(txs.findById(21L)).thenReturn(Optional.of(credit));
+
+        service.approve(20L, new ApproveRequest(TransactionStatus.APPROVED));
+
+        InOrder order = inOrder(balances);
+        order.verify(balances).apply(wallet, BigDecimal.ZERO, new BigDecimal("1500"));
+        order.verify(balances).apply(other, new BigDecimal("-1500"), BigDecimal.ZERO);
+        assertThat(other.getBalance()).isEqualByComparingTo("3500");
+        assertThat(wallet.getUsableBalance()).isEqualByComparingTo("1500");
+    }
+
+    private static Wallet walletWithId(Long id, String balance, String usable) {
+        Wallet w = new Wallet();
+        w.setId(id);
+        w.setBalance(new BigDecimal(balance));
+        w.setUsableBalance(new BigDecimal(usable));
+        return w;
+    }
+
+    private static Transaction pendingLeg(Long id, Wallet w, TransactionType type, String amount) {
+        Transaction tx = new Transaction();
+        tx.setId(id);
+        tx.setWallet(w);
+        tx.setType(type);
+        tx.setStatus(TransactionStatus.PENDING);
+        tx.setAmount(new BigDecimal(amount));
+        return tx;
+    }
 }
@@ -0,0 +1,119 @@
+package com.ozgedemir.wallet.service;
+
+import com.ozgedemir.wallet.domain.entities.Wallet;
+import com.ozgedemir.wallet.domain.enums.TransactionStatus;
+import com.ozgedemir.wallet.domain.repos.TransactionRepository;
+import com.ozgedemir.wallet.domain.repos.WalletRepository;
+import com.ozgedemir.wallet.dto.tx.ApproveRequest;
+import com.ozgedemir.wallet.dto.tx.TransferRequest;
+import com.ozgedemir.wallet.dto.tx.TransferResponse;
+import com.ozgedemir.wallet.support.TestWallets;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class TransferConcurrencyTest {
+
+    @Autowired TestWallets testWallets;
+    @Autowired TransactionService txService;
+    @Autowired WalletRepository wallets;
+    @Autowired TransactionRepository txs;
+
+    @Test
+    void opposing_transfers_between_two_wallets_all_complete_and_conserve_money() throws Exception {
+        Long a = testWallets.create("10000.00");
+        Long b = testWallets.create("10000.00");
+        int threads = 8, perThread = 50;
+        BigDecimal amount = new BigDecimal("10.00");
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            // half the threads send a -> b, the other half b -> a: the classic lock-order deadlock
+            TransferRequest req = t % 2 == 0 ? new TransferRequest(a, b, amount) : new TransferRequest(b, a, amount);
+            workers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    TransferResponse res = txService.transfer(req);
+                    assertThat(res.debit().status()).isEqualTo(TransactionStatus.APPROVED);
+                    assertThat(res.credit().status()).isEqualTo(TransactionStatus.APPROVED);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> w : workers) w.get(60, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        // as many transfers each way, so both wallets end where they started
+        Wallet wa = wallets.findById(a).orElseThrow();
+        Wallet wb = wallets.findById(b).orElseThrow();
+        assertThat(wa.getBalance()).isEqualByComparingTo("10000.00");
+        assertThat(wa.getUsableBalance()).isEqualByComparingTo("10000.00");
+        assertThat(wb.getBalance()).isEqualByComparingTo("10000.00");
+        assertThat(wb.getUsableBalance()).isEqualByComparingTo("10000.00");
+    }
+
+    @Test
+    void transfer_over_threshold_creates_linked_pending_legs() {
+        Long a = testWallets.create("5000.00");
+        Long b = testWallets.create("0.00");
+
+        TransferResponse res = txService.transfer(new TransferRequest(a, b, new BigDecimal("1500.00")));
+
+        assertThat(res.debit().status()).isEqualTo(TransactionStatus.PENDING);
+        assertThat(res.credit().status()).isEqualTo(TransactionStatus.PENDING);
+        assertThat(wallets.findById(a).orElseThrow().getUsableBalance()).isEqualByComparingTo("3500.00");
+        assertThat(wallets.findById(b).orElseThrow().getBalance()).isEqualByComparingTo("1500.00");
+        assertThat(wallets.findById(b).orElseThrow().getUsableBalance()).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    void each_leg_is_inserted_once_and_approving_either_leg_finalizes_both() {
+        Long a = testWallets.create("5000.00");
+        Long b = testWallets.create("0.00");
+
+        TransferResponse first = txService.transfer(new TransferRequest(a, b, new BigDecimal("1500.00")));
+        TransferResponse second = txService.transfer(new TransferRequest(a, b, new BigDecimal("1200.00")));
+
+        // never updated after the insert
+        var debit = txs.findById(first.debit().id()).orElseThrow();
+        assertThat(debit.getVersion()).isZero();
+        assertThat(debit.getRelatedTransactionId()).isEqualTo(first.credit().id());
+        assertThat(txs.findById(first.credit().id()).orElseThrow().getVersion()).isZero();
+
+        txService.approve(first.credit().id(), new ApproveRequest(TransactionStatus.APPROVED));
+        txService.approve(second.debit().id(), new ApproveRequest(TransactionStatus.DENIED));
+
+        assertThat(txs.findById(first.debit().id()).orElseThrow().getStatus()).isEqualTo(TransactionStatus.APPROVED);
+        assertThat(txs.findById(second.credit().id()).orElseThrow().getStatus()).isEqualTo(TransactionStatus.DENIED);
+        assertThat(wallets.findById(a).orElseThrow().getBalance()).isEqualByComparingTo("3500.00");
+        assertThat(wallets.findById(b).orElseThrow().getUsableBalance()).isEqualByComparingTo("1500.00");
+    }
+
+    @Test
+    void leg_lookups_follow_the_debit_to_credit_link_from_either_leg() {
+        Long a = testWallets.create("5000.00");
+        Long b = testWallets.create("0.00");
+        TransferResponse t = txService.transfer(new TransferRequest(a, b, new BigDecimal("1500.00")));
+        Long debit = t.debit().id(), credit = t.credit().id();
+
+        assertThat(txs.findById(credit).orElseThrow().getRelatedTransactionId()).isNull();
+        assertThat(txs.findWalletIdsWithRelatedById(debit)).containsExactlyInAnyOrder(a, b);
+        assertThat(txs.findWalletIdsWithRelatedById(credit)).containsExactlyInAnyOrder(a, b);
+        assertThat(txs.findRelatedIds(List.of(debit), TransactionStatus.PENDING)).containsExactly(credit);
+        assertThat(txs.findRelatedIds(List.of(credit), TransactionStatus.PENDING)).containsExactly(debit);
+        assertThat(txs.findRelatedIds(List.of(debit, credit), TransactionStatus.PENDING))
+                .containsExactlyInAnyOrder(debit, credit);
+        assertThat(txs.findRelatedIds(List.of(debit), TransactionStatus.APPROVED)).isEmpty();
+    }
+}
@@ -0,0 +1,109 @@
+package com.ozgedemir.wallet.service;
+
+import com.ozgedemir.wallet.domain.entities.Customer;
+import com.ozgedemir.wallet.domain.enums.Currency;
+import com.ozgedemir.wallet.domain.repos.CustomerRepository;
+import com.ozgedemir.wallet.dto.CursorPage;
+import com.ozgedemir.wallet.dto.wallet.CreateWalletRequest;
+import com.ozgedemir.wallet.dto.wallet.WalletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class WalletListTest {
+
+    @Autowired WalletService walletService;
+    @Autowired CustomerRepository customers;
+
+    Long customerId;
+    final List<Long> tryWallets = new ArrayList<>();
+    final List<Long> usdWallets = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // a customer of its own, so other tests' wallets don't show up in the filtered lists
+        String unique = UUID.randomUUID().toString().substring(0, 11);
+        Customer c = new Customer();
+        c.setName("List");
+        c.setSurname("Test");
+        c.setTckn(unique);
+        c.setUsername(unique + "@wallet");
+        c.setPasswordHash("x");
+        c.setRole("CUSTOMER");
+        customerId = customers.save(c).getId();
+
+        for (int i = 0; i < 7; i++) {
+            Currency currency = i % 3 == 2 ? Currency.USD : Currency.TRY;
+            Long id = walletService.create(new CreateWalletRequest(customerId, "w" + i, currency, true, true)).id();
+            (currency == Currency.TRY ? tryWallets : usdWallets).add(id);
+        }
+    }
+
+    @Test
+    void customer_pages_cover_every_wallet_once_in_id_order() {
+        List<Long> all = new ArrayList<>(tryWallets);
+        all.addAll(usdWallets);
+        all.sort(null);
+
+        assertThat(walkPages(customerId, null, 3)).containsExactlyElementsOf(all);
+    }
+
+    @Test
+    void customer_and_currency_filter_pages_only_matching_wallets() {
+        assertThat(walkPages(customerId, Currency.TRY, 2)).containsExactlyElementsOf(tryWallets);
+        assertThat(walkPages(customerId, Currency.USD, 2)).containsExactlyElementsOf(usdWallets);
+        assertThat(walkPages(customerId, Currency.EUR, 2)).isEmpty();
+    }
+
+    @Test
+    void currency_filter_alone_spans_customers_and_still_pages_in_id_order() {
+        List<WalletResponse> rows = walletService.list(null, Currency.USD, null, 500).items();
+
+        assertThat(rows).extracting(WalletResponse::id).containsAll(usdWallets);
+        assertThat(rows).allSatisfy(w -> assertThat(w.currency()).isEqualTo(Currency.USD));
+        assertThat(rows).extracting(WalletResponse::id).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void exact_multiple_of_the_page_size_ends_without_a_cursor() {
+        CursorPage<WalletResponse> first = walletService.list(customerId, Currency.USD, null, 1);
+        CursorPage<WalletResponse> second = walletService.list(customerId, Currency.USD, first.next(), 1);
+
+        assertThat(first.next()).isNotNull();
+        assertThat(second.items()).extracting(WalletResponse::id).containsExactly(usdWallets.get(1));
+        assertThat(second.next()).isNull();
+    }
+
+    @Test
+    void bad_cursor_or_size_is_rejected() {
+        assertThatThrownBy(() -> walletService.list(customerId, null, "garbage!", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> walletService.list(customerId, null, null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> walletService.list(customerId, null, null, 501))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<Long> walkPages(Long customerId, Currency currency, int size) {
+        List<Long> ids = new ArrayList<>();
+        String after = null;
+        do {
+            CursorPage<WalletResponse> page = walletService.list(customerId, currency, after, size);
+            assertThat(page.items()).hasSizeLessThanOrEqualTo(size)
+                    .allSatisfy(w -> assertThat(w.customerId()).isEqualTo(customerId));
+            if (currency != null) assertThat(page.items()).allSatisfy(w -> assertThat(w.currency()).isEqualTo(currency));
+            page.items().forEach(w -> ids.add(w.id()));
+            after = page.next();
+        } while (after != null);
+        return ids;
+    }
+}
@@ -0,0 +1,70 @@
+package com.ozgedemir.wallet.service;
+
+import com.ozgedemir.wallet.domain.entities.Wallet;
+import com.ozgedemir.wallet.domain.enums.OppositePartyType;
+import com.ozgedemir.wallet.domain.repos.WalletBalanceSlotRepository;
+import com.ozgedemir.wallet.domain.repos.WalletRepository;
+import com.ozgedemir.wallet.dto.tx.DepositRequest;
+import com.ozgedemir.wallet.dto.tx.WithdrawRequest;
+import com.ozgedemir.wallet.dto.wallet.WalletResponse;
+import com.ozgedemir.wallet.support.TestWallets;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class WalletShardingServiceTest {
+
+    @Autowired TestWallets testWallets;
+    @Autowired WalletShardingService sharding;
+    @Autowired TransactionService txService;
+    @Autowired WalletRepository wallets;
+    @Autowired WalletBalanceSlotRepository slots;
+
+    @Test
+    void resharding_keeps_the_balances() {
+        Long id = testWallets.create("1000.00");
+        sharding.reshard(id, 4);
+        for (int i = 0; i < 8; i++) deposit(id, "100.00");
+        assertThat(slots.sumUsable(id)).isEqualByComparingTo("800.00");
+
+        WalletResponse moved = sharding.reshard(id, 2);
+        assertBalances(moved, "1800.00");
+        assertThat(slots.sumUsable(id)).isEqualByComparingTo("0");
+
+        WalletResponse back = sharding.reshard(id, 1);
+        assertBalances(back, "1800.00");
+        Wallet row = wallets.findById(id).orElseThrow();
+        assertThat(row.getSlotCount()).isEqualTo(1);
+        assertThat(row.getUsableBalance()).isEqualByComparingTo("1800.00");
+        assertThat(slots.findAll()).noneMatch(s -> s.getWalletId().equals(id));
+    }
+
+    @Test
+    void withdrawal_is_covered_by_money_in_the_slots() {
+        Long id = testWallets.create("0.00");
+        sharding.reshard(id, 4);
+        for (int i = 0; i < 4; i++) deposit(id, "250.00");
+
+        // the row alone holds nothing; the slots hold all 1000
+        txService.withdraw(new WithdrawRequest(id, new BigDecimal("900.00"), OppositePartyType.PAYMENT, "SHOP"));
+        assertThatThrownBy(() -> txService.withdraw(new WithdrawRequest(id, new BigDecimal("200.00"), OppositePartyType.PAYMENT, "SHOP")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Insufficient usable balance");
+
+        assertBalances(wallets.findRowById(id).orElseThrow().toResponse(), "100.00");
+    }
+
+    private void deposit(Long id, String amount) {
+        txService.deposit(new DepositRequest(id, new BigDecimal(amount), OppositePartyType.IBAN, "TR1"));
+    }
+
+    private static void assertBalances(WalletResponse w, String expected) {
+        assertThat(w.balance()).isEqualByComparingTo(expected);
+        assertThat(w.usableBalance()).isEqualByComparingTo(expected);
+    }
+}
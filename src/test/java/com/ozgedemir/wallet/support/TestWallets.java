@@ -0,0 +1,38 @@
+package com.ozgedemir.wallet.support;
+
+import com.ozgedemir.wallet.domain.entities.Wallet;
+import com.ozgedemir.wallet.domain.enums.Currency;
+import com.ozgedemir.wallet.domain.repos.CustomerRepository;
+import com.ozgedemir.wallet.domain.repos.WalletRepository;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/** Creates wallets for integration tests: TRY, owned by the seeded customer, open for shopping and withdrawals. */
+@Component
+public class TestWallets {
+
+    private final CustomerRepository customers;
+    private final WalletRepository wallets;
+
+    public TestWallets(CustomerRepository customers, WalletRepository wallets) {
+        this.customers = customers;
+        this.wallets = wallets;
+    }
+
+    public Long create() {
+        return create("0.00");
+    }
+
+    public Long create(String funds) {
+        Wallet w = new Wallet();
+        w.setCustomer(customers.findByUsername("alice@wallet").orElseThrow());
+        w.setWalletName("test-wallet");
+        w.setCurrency(Currency.TRY);
+        w.setActiveForShopping(true);
+        w.setActiveForWithdraw(true);
+        w.setBalance(new BigDecimal(funds));
+        w.setUsableBalance(new BigDecimal(funds));
+        return wallets.save(w).getId();
+    }
+}
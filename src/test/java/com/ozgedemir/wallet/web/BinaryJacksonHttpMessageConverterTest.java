@@ -0,0 +1,38 @@
+package com.ozgedemir.wallet.web;
+
+import com.ozgedemir.wallet.domain.enums.OppositePartyType;
+import com.ozgedemir.wallet.domain.enums.TransactionStatus;
+import com.ozgedemir.wallet.domain.enums.TransactionType;
+import com.ozgedemir.wallet.dto.tx.TransactionResponse;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BinaryJacksonHttpMessageConverterTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"cbor", "smile"})
+    void roundTrip_keepsAmountsExact(String format) throws Exception {
+        var converter = format.equals("cbor")
+                ? new BinaryJacksonHttpMessageConverter(Jackson2ObjectMapperBuilder.cbor().build(), MediaType.APPLICATION_CBOR)
+                : new BinaryJacksonHttpMessageConverter(Jackson2ObjectMapperBuilder.smile().build(), BinaryFormatsConfig.APPLICATION_SMILE);
+        var tx = new TransactionResponse(42L, 7L, new BigDecimal("12345678901234567.10"), TransactionType.DEPOSIT,
+                OppositePartyType.IBAN, "TR0001", TransactionStatus.PENDING, Instant.parse("2025-01-02T03:04:05.123456Z"));
+
+        var out = new MockHttpOutputMessage();
+        converter.write(tx, TransactionResponse.class, null, out);
+        var in = new MockHttpInputMessage(out.getBodyAsBytes());
+        var read = (TransactionResponse) converter.read(TransactionResponse.class, null, in);
+
+        assertThat(read).isEqualTo(tx);
+        assertThat(read.amount().scale()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,40 @@
+package db.migration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class V2IdSequencesTest {
+
+    @Test
+    void sequences_start_past_rows_written_on_the_v1_schema() {
+        var ds = new DriverManagerDataSource("jdbc:h2:mem:migrate-" + UUID.randomUUID()
+                + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "sa");
+        var jdbc = new JdbcTemplate(ds);
+
+        // a database that ran the app on the V1 schema
+        Flyway.configure().dataSource(ds).target("1").load().migrate();
+        jdbc.update("insert into customers(id, name, surname, tckn, username, password_hash, role) " +
+                "values (7, 'A', 'B', '1', 'a@wallet', 'x', 'CUSTOMER')");
+        jdbc.update("insert into wallets(id, customer_id, wallet_name, currency) values (12, 7, 'w', 'TRY')");
+        jdbc.update("insert into transactions(id, wallet_id, amount, type, opposite_party_type, opposite_party, status) " +
+                "values (130, 12, 10, 'DEPOSIT', 'IBAN', 'TR1', 'APPROVED')");
+
+        Flyway.configure().dataSource(ds).load().migrate();
+
+        // the pooled optimizer hands out ids from (next - 50, next]
+        assertThat(next(jdbc, "customers_seq") - 50).isGreaterThan(7);
+        assertThat(next(jdbc, "wallets_seq") - 50).isGreaterThan(12);
+        assertThat(next(jdbc, "transactions_seq") - 50).isGreaterThan(130);
+        assertThat(next(jdbc, "idempotent_requests_seq")).isEqualTo(1);
+    }
+
+    private static long next(JdbcTemplate jdbc, String sequence) {
+        return jdbc.queryForObject("select nextval('" + sequence + "')", Long.class);
+    }
+}